@@ -116,6 +116,7 @@ CREATE TABLE IF NOT EXISTS public.item (
     color_groups VARCHAR(255) NOT NULL,
     img_src VARCHAR(255) NOT NULL,
     object_src VARCHAR(255),
+    model_src VARCHAR(255),
     description TEXT
 );
 
@@ -230,4 +231,173 @@ CREATE TABLE IF NOT EXISTS "user" (
 );
 
 INSERT INTO "user" (id, username, password, name, lastname, role, address, bill_address_id, delivery_address_id, email, telephone) VALUES
-    ('687ee0d9-4c80-402c-93f2-f9c8ab5479f3','admin','admin','admin','admin','admin','null',NULL,NULL,'admin@gemsflare.com','+491742356277');
\ No newline at end of file
+    ('687ee0d9-4c80-402c-93f2-f9c8ab5479f3','admin','admin','admin','admin','admin','null',NULL,NULL,'admin@gemsflare.com','+491742356277');
+
+CREATE TABLE IF NOT EXISTS public.permission_membership (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    route_id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    role VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_permission_membership_route_user_role UNIQUE (route_id, user_id, role)
+);
+
+CREATE INDEX IF NOT EXISTS idx_permission_membership_user_role ON public.permission_membership (user_id, role, route_id);
+
+INSERT INTO public.permission_membership (route_id, user_id, role)
+SELECT p.id, CAST(m.user_id AS uuid), 'admin'
+FROM public.permission p CROSS JOIN LATERAL json_array_elements_text(CAST(p.admins AS json)) AS m(user_id)
+ON CONFLICT (route_id, user_id, role) DO NOTHING;
+
+INSERT INTO public.permission_membership (route_id, user_id, role)
+SELECT p.id, CAST(m.user_id AS uuid), 'user'
+FROM public.permission p CROSS JOIN LATERAL json_array_elements_text(CAST(p.users AS json)) AS m(user_id)
+ON CONFLICT (route_id, user_id, role) DO NOTHING;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE public.item ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(category, '')), 'B') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'C')
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_item_search_vector ON public.item USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_item_name_trgm ON public.item USING GIN (name gin_trgm_ops);
+
+CREATE TABLE IF NOT EXISTS public.schema_version (
+    name VARCHAR(255) PRIMARY KEY,
+    version INTEGER NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS public.item_facet_count (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    facet VARCHAR(255) NOT NULL,
+    facet_value VARCHAR(255) NOT NULL,
+    item_count BIGINT NOT NULL,
+    CONSTRAINT uk_item_facet_count_facet_value UNIQUE (facet, facet_value)
+);
+
+CREATE OR REPLACE FUNCTION public.item_price_range(price NUMERIC) RETURNS VARCHAR AS $$
+    SELECT CASE WHEN price IS NULL THEN NULL
+                WHEN price < 50 THEN '0-50'
+                WHEN price < 100 THEN '50-100'
+                WHEN price < 250 THEN '100-250'
+                WHEN price < 500 THEN '250-500'
+                ELSE '500+' END
+$$ LANGUAGE sql IMMUTABLE;
+
+CREATE TABLE IF NOT EXISTS public.item_facet (
+    id UUID PRIMARY KEY DEFAULT uuid_generate_v4(),
+    item_id UUID NOT NULL,
+    facet VARCHAR(255) NOT NULL,
+    facet_value VARCHAR(255) NOT NULL,
+    CONSTRAINT uk_item_facet_facet_value_item UNIQUE (facet, facet_value, item_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_facet_item_id ON public.item_facet (item_id);
+
+CREATE OR REPLACE FUNCTION public.item_facets(item_row public.item) RETURNS TABLE (facet TEXT, facet_value TEXT) AS $$
+    SELECT f.facet, f.facet_value FROM (
+        SELECT 'category' AS facet, CAST(item_row.category AS TEXT) AS facet_value
+        UNION SELECT 'color_group', c.value FROM json_array_elements_text(CAST(item_row.color_groups AS json)) AS c(value)
+        UNION SELECT 'price_range', public.item_price_range(item_row.price)
+        UNION SELECT 'in_stock', CASE WHEN item_row.amount > 0 THEN 'true' ELSE 'false' END
+    ) f WHERE f.facet_value IS NOT NULL
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION public.item_facet_delta(item_row public.item, delta INTEGER) RETURNS void AS $$
+BEGIN
+    INSERT INTO public.item_facet_count (id, facet, facet_value, item_count)
+    SELECT uuid_generate_v4(), f.facet, f.facet_value, delta FROM public.item_facets(item_row) f
+    ON CONFLICT (facet, facet_value) DO UPDATE SET item_count = public.item_facet_count.item_count + EXCLUDED.item_count;
+    IF delta < 0 THEN
+        DELETE FROM public.item_facet WHERE item_id = item_row.id;
+    ELSE
+        INSERT INTO public.item_facet (id, item_id, facet, facet_value)
+        SELECT uuid_generate_v4(), item_row.id, f.facet, f.facet_value FROM public.item_facets(item_row) f
+        ON CONFLICT (facet, facet_value, item_id) DO NOTHING;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION public.item_facet_trigger() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'UPDATE'
+        AND OLD.category IS NOT DISTINCT FROM NEW.category
+        AND OLD.color_groups IS NOT DISTINCT FROM NEW.color_groups
+        AND public.item_price_range(OLD.price) IS NOT DISTINCT FROM public.item_price_range(NEW.price)
+        AND (OLD.amount > 0) IS NOT DISTINCT FROM (NEW.amount > 0) THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN PERFORM public.item_facet_delta(OLD, -1); END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN PERFORM public.item_facet_delta(NEW, 1); END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS item_facet_count_trigger ON public.item;
+CREATE TRIGGER item_facet_count_trigger AFTER INSERT OR UPDATE OR DELETE ON public.item
+    FOR EACH ROW EXECUTE FUNCTION public.item_facet_trigger();
+
+INSERT INTO public.item_facet_count (id, facet, facet_value, item_count)
+SELECT uuid_generate_v4(), f.facet, f.facet_value, count(*)
+FROM public.item i CROSS JOIN LATERAL public.item_facets(i) f
+GROUP BY f.facet, f.facet_value
+ON CONFLICT (facet, facet_value) DO NOTHING;
+
+INSERT INTO public.item_facet (id, item_id, facet, facet_value)
+SELECT uuid_generate_v4(), i.id, f.facet, f.facet_value
+FROM public.item i CROSS JOIN LATERAL public.item_facets(i) f
+ON CONFLICT (facet, facet_value, item_id) DO NOTHING;
+
+INSERT INTO public.schema_version (name, version) VALUES ('item_facet', 2)
+ON CONFLICT (name) DO UPDATE SET version = EXCLUDED.version;
+
+CREATE INDEX IF NOT EXISTS idx_item_name_id ON public.item (name, id);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_item_number ON public.item (number);
+CREATE INDEX IF NOT EXISTS idx_order_date_id ON public."order" (date, id);
+CREATE INDEX IF NOT EXISTS idx_checkout_date_id ON public.checkout (date, id);
+
+CREATE TABLE IF NOT EXISTS public.inventory_checkpoint (
+    name character varying(64) NOT NULL PRIMARY KEY,
+    wal_seq bigint NOT NULL,
+    updated_at timestamp without time zone NOT NULL DEFAULT now()
+);
+
+CREATE TABLE IF NOT EXISTS public.stock_hold (
+    checkout_number character varying(255) NOT NULL,
+    item_number character varying(255) NOT NULL,
+    quantity integer NOT NULL,
+    expires_at timestamp without time zone NOT NULL,
+    PRIMARY KEY (checkout_number, item_number)
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_hold_expires_at ON public.stock_hold (expires_at);
+
+CREATE TABLE IF NOT EXISTS public.email_outbox (
+    id uuid DEFAULT uuid_generate_v4() NOT NULL PRIMARY KEY,
+    recipient character varying(255) NOT NULL,
+    subject character varying(255) NOT NULL,
+    body text NOT NULL,
+    status character varying(255) NOT NULL,
+    attempts integer NOT NULL,
+    next_attempt_at timestamp(6) without time zone NOT NULL,
+    locked_at timestamp(6) without time zone,
+    last_error text,
+    created_at timestamp(6) without time zone NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_email_outbox_status_next_attempt ON public.email_outbox (status, next_attempt_at);
+
+CREATE TABLE IF NOT EXISTS public.invoice_pdf (
+    id uuid DEFAULT uuid_generate_v4() NOT NULL PRIMARY KEY,
+    invoice_number character varying(255) NOT NULL UNIQUE,
+    content bytea NOT NULL,
+    sha256 character varying(64) NOT NULL,
+    size bigint NOT NULL,
+    created_at timestamp(6) without time zone NOT NULL
+);
+
+ALTER TABLE public.invoice_pdf ALTER COLUMN content SET STORAGE EXTERNAL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_invoice_counter_date ON public.invoice_counter (date);
@@ -4,7 +4,8 @@ import com.gemsflare.gemsflare.address.jpa.BillAddressEntity;
 import com.gemsflare.gemsflare.address.model.BillAddressDTO;
 import com.gemsflare.gemsflare.address.repository.BillAddressRepository;
 import com.gemsflare.gemsflare.permission.service.PermissionService;
-import com.gemsflare.gemsflare.security.JwtUtil;
+import com.gemsflare.gemsflare.security.AuthContext;
+import com.gemsflare.gemsflare.security.AuthContextResolver;
 import com.gemsflare.gemsflare.user.jpa.UserEntity;
 import com.gemsflare.gemsflare.user.repository.UserRepository;
 import jakarta.servlet.http.HttpServletRequest;
@@ -24,25 +25,24 @@ public class BillAddressService {
     @Autowired
     private BillAddressRepository billAddressRepository;
     @Autowired
-    private JwtUtil jwtUtil;
+    private AuthContextResolver authContextResolver;
     @Autowired
     private PermissionService permissionService;
     @Autowired
     private UserRepository userRepository;
 
     public ResponseEntity<?> addMyBillAddress(HttpServletRequest request, BillAddressEntity billAddressEntity) {
-        String authorizationHeader = request.getHeader("Authorization");
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
-        UUID userId = jwtUtil.getUserIdFromToken(token);
+        UUID userId = authContext.getUserId();
 
         if (billAddressRepository.findByUserid(userId) != null) {
             return ResponseEntity.status(400).body("User already has a bill address");
@@ -56,18 +56,17 @@ public class BillAddressService {
     }
 
     public ResponseEntity<?> removeMyBillAddress(HttpServletRequest request) {
-        String authorizationHeader = request.getHeader("Authorization");
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
-        UUID userId = jwtUtil.getUserIdFromToken(token);
+        UUID userId = authContext.getUserId();
 
         BillAddressEntity billAddress = billAddressRepository.findByUserid(userId);
         if (billAddress == null) {
@@ -79,18 +78,17 @@ public class BillAddressService {
     }
 
     public ResponseEntity<?> editMyBillAddress(HttpServletRequest request, BillAddressEntity updatedAddress) {
-        String authorizationHeader = request.getHeader("Authorization");
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
-        UUID userId = jwtUtil.getUserIdFromToken(token);
+        UUID userId = authContext.getUserId();
 
         BillAddressEntity existingAddress = billAddressRepository.findByUserid(userId);
         if (existingAddress == null) {
@@ -110,18 +108,17 @@ public class BillAddressService {
     }
 
     public ResponseEntity<?> getMyBillAddress(HttpServletRequest request) {
-        String authorizationHeader = request.getHeader("Authorization");
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
-        UUID userId = jwtUtil.getUserIdFromToken(token);
+        UUID userId = authContext.getUserId();
 
         BillAddressEntity existingAddress = billAddressRepository.findByUserid(userId);
         if (existingAddress == null) {
@@ -142,18 +139,17 @@ public class BillAddressService {
     }
 
     public BillAddressDTO getMyBillAddressDTO(HttpServletRequest request) {
-        String authorizationHeader = request.getHeader("Authorization");
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return null;
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return null;
         }
 
-        UUID userId = jwtUtil.getUserIdFromToken(token);
+        UUID userId = authContext.getUserId();
 
         BillAddressEntity existingAddress = billAddressRepository.findByUserid(userId);
         if (existingAddress == null) {
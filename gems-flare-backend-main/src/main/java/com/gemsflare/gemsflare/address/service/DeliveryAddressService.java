@@ -4,7 +4,8 @@ import com.gemsflare.gemsflare.address.jpa.DeliveryAddressEntity;
 import com.gemsflare.gemsflare.address.model.DeliveryAddressDTO;
 import com.gemsflare.gemsflare.address.repository.DeliveryAddressRepository;
 import com.gemsflare.gemsflare.permission.service.PermissionService;
-import com.gemsflare.gemsflare.security.JwtUtil;
+import com.gemsflare.gemsflare.security.AuthContext;
+import com.gemsflare.gemsflare.security.AuthContextResolver;
 import com.gemsflare.gemsflare.user.jpa.UserEntity;
 import com.gemsflare.gemsflare.user.repository.UserRepository;
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,25 +24,24 @@ public class DeliveryAddressService {
     @Autowired
     private DeliveryAddressRepository deliveryAddressRepository;
     @Autowired
-    private JwtUtil jwtUtil;
+    private AuthContextResolver authContextResolver;
     @Autowired
     private PermissionService permissionService;
     @Autowired
     private UserRepository userRepository;
 
     public ResponseEntity<?> addMyDeliveryAddress(HttpServletRequest request, DeliveryAddressEntity deliveryAddressEntity) {
-        String authorizationHeader = request.getHeader("Authorization");
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
-        UUID userId = jwtUtil.getUserIdFromToken(token);
+        UUID userId = authContext.getUserId();
 
         if (deliveryAddressRepository.findByUserid(userId) != null) {
             return ResponseEntity.status(400).body("User already has a delivery address");
@@ -55,18 +55,17 @@ public class DeliveryAddressService {
     }
 
     public ResponseEntity<?> removeMyDeliveryAddress(HttpServletRequest request) {
-        String authorizationHeader = request.getHeader("Authorization");
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
-        UUID userId = jwtUtil.getUserIdFromToken(token);
+        UUID userId = authContext.getUserId();
 
         DeliveryAddressEntity deliveryAddress = deliveryAddressRepository.findByUserid(userId);
         if (deliveryAddress == null) {
@@ -78,18 +77,17 @@ public class DeliveryAddressService {
     }
 
     public ResponseEntity<?> editMyDeliveryAddress(HttpServletRequest request, DeliveryAddressEntity updatedAddress) {
-        String authorizationHeader = request.getHeader("Authorization");
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
-        UUID userId = jwtUtil.getUserIdFromToken(token);
+        UUID userId = authContext.getUserId();
 
         DeliveryAddressEntity existingAddress = deliveryAddressRepository.findByUserid(userId);
         if (existingAddress == null) {
@@ -109,18 +107,17 @@ public class DeliveryAddressService {
     }
 
     public ResponseEntity<?> getMyDeliveryAddress(HttpServletRequest request) {
-        String authorizationHeader = request.getHeader("Authorization");
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
-        UUID userId = jwtUtil.getUserIdFromToken(token);
+        UUID userId = authContext.getUserId();
 
         DeliveryAddressEntity existingAddress = deliveryAddressRepository.findByUserid(userId);
         if (existingAddress == null) {
@@ -141,18 +138,17 @@ public class DeliveryAddressService {
     }
 
     public DeliveryAddressDTO getMyDeliveryAddressDTO(HttpServletRequest request) {
-        String authorizationHeader = request.getHeader("Authorization");
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return null;
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return null;
         }
 
-        UUID userId = jwtUtil.getUserIdFromToken(token);
+        UUID userId = authContext.getUserId();
 
         DeliveryAddressEntity existingAddress = deliveryAddressRepository.findByUserid(userId);
         if (existingAddress == null) {
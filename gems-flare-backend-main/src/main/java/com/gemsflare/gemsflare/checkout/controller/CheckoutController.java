@@ -28,6 +28,13 @@ public class CheckoutController {
         return checkoutService.getAllCheckout(request, page, size);
     }
 
+    @GetMapping("/getCheckoutsByCursor")
+    public ResponseEntity<?> getCheckoutsByCursor(HttpServletRequest request,
+                                                  @RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "20") int size) {
+        return checkoutService.getCheckoutsByCursor(request, cursor, size);
+    }
+
     @GetMapping("/getCheckout/{checkoutNumber}")
     public ResponseEntity<?> getCheckoutByNumber(@PathVariable String checkoutNumber) {
         return checkoutService.getCheckoutByNumber(checkoutNumber);
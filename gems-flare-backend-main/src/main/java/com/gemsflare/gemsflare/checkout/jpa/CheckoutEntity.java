@@ -8,6 +8,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
@@ -18,7 +19,7 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "checkout", schema = "public")
+@Table(name = "checkout", schema = "public", indexes = @Index(name = "idx_checkout_date_id", columnList = "date, id"))
 @NoArgsConstructor
 @AllArgsConstructor
 public class CheckoutEntity {
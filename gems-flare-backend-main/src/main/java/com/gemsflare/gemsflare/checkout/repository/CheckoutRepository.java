@@ -4,6 +4,8 @@ import com.gemsflare.gemsflare.checkout.jpa.CheckoutEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Date;
@@ -17,6 +19,12 @@ public interface CheckoutRepository extends JpaRepository<CheckoutEntity, UUID>
     Optional<CheckoutEntity> findByNumber(String number);
     Optional<CheckoutEntity> findByUserid(UUID userid);
     Page<CheckoutEntity> findAll(Pageable pageable);
-    List<CheckoutEntity> findByDateBefore(Date date);
+
+    @Query(value = "SELECT * FROM public.checkout c ORDER BY c.date DESC, c.id DESC LIMIT :limit", nativeQuery = true)
+    List<CheckoutEntity> findFirstKeysetPage(@Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM public.checkout c WHERE c.date <= :date AND (c.date < :date OR c.id < :id) " +
+            "ORDER BY c.date DESC, c.id DESC LIMIT :limit", nativeQuery = true)
+    List<CheckoutEntity> findKeysetPageBefore(@Param("date") Date date, @Param("id") UUID id, @Param("limit") int limit);
 
 }
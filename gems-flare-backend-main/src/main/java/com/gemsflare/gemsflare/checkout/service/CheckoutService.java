@@ -5,46 +5,72 @@ import com.gemsflare.gemsflare.checkout.model.CheckoutDTO;
 import com.gemsflare.gemsflare.checkout.repository.CheckoutRepository;
 import com.gemsflare.gemsflare.item.model.ItemDTO;
 import com.gemsflare.gemsflare.item.service.ItemService;
+import com.gemsflare.gemsflare.item.service.StockHoldService;
 import com.gemsflare.gemsflare.permission.service.PermissionService;
-import com.gemsflare.gemsflare.security.JwtUtil;
+import com.gemsflare.gemsflare.security.AuthContext;
+import com.gemsflare.gemsflare.security.AuthContextResolver;
+import com.gemsflare.gemsflare.utils.CursorPage;
+import com.gemsflare.gemsflare.utils.KeysetCursor;
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.transaction.Transactional;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.util.Calendar;
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class CheckoutService {
+    public static final Duration CHECKOUT_TTL = Duration.ofMinutes(30);
+    private static final int PURGE_BATCH_SIZE = 500;
+    private static final int PURGE_MAX_BATCHES = 20;
+    private static final String PURGE_SQL = "DELETE FROM public.checkout WHERE id IN (" +
+            "SELECT id FROM public.checkout WHERE date < ? ORDER BY date LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING number";
+
     @Autowired
     private ItemService itemService;
     @Autowired
+    private StockHoldService stockHoldService;
+    @Autowired
     private CheckoutRepository checkoutRepository;
     @Autowired
-    private JwtUtil jwtUtil;
+    private AuthContextResolver authContextResolver;
     @Autowired
     private PermissionService permissionService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicLong purgeLagSeconds = new AtomicLong();
+    private Counter purgedCheckouts;
 
     public ResponseEntity<?> getAllCheckout(HttpServletRequest request, int page, int size) {
-        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
@@ -61,6 +87,51 @@ public class CheckoutService {
         return ResponseEntity.ok(CheckoutPage);
     }
 
+    public ResponseEntity<?> getCheckoutsByCursor(HttpServletRequest request, String cursor, int size) {
+        AuthContext authContext = authContextResolver.resolve(request);
+
+        if (authContext == null) {
+            return ResponseEntity.status(401).body("Unauthorized: No token provided");
+        }
+
+        if (!authContext.isValid()) {
+            return ResponseEntity.status(401).body("Unauthorized: Invalid token");
+        }
+
+        if (!permissionService.hasPermission(request, "/checkout")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied: Permission required");
+        }
+
+        if (size < 1) {
+            return ResponseEntity.status(400).body("Error: Size must be at least 1");
+        }
+
+        List<CheckoutEntity> checkouts;
+        try {
+            if (cursor == null || cursor.isEmpty()) {
+                checkouts = checkoutRepository.findFirstKeysetPage(size + 1);
+            } else {
+                KeysetCursor after = KeysetCursor.decode(cursor);
+                checkouts = checkoutRepository.findKeysetPageBefore(new Date(after.getSortKeyAsLong()), after.getId(), size + 1);
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body("Error: Invalid cursor");
+        }
+
+        if (checkouts.isEmpty()) {
+            return ResponseEntity.status(404).body("No Checkout process found");
+        }
+
+        String nextCursor = null;
+        if (checkouts.size() > size) {
+            checkouts = checkouts.subList(0, size);
+            CheckoutEntity last = checkouts.get(size - 1);
+            nextCursor = KeysetCursor.encode(String.valueOf(last.getDate().getTime()), last.getId());
+        }
+
+        return ResponseEntity.ok(new CursorPage<>(checkouts, nextCursor));
+    }
+
     public ResponseEntity<?> getCheckoutByNumber(String checkoutNumber) {
         Optional<CheckoutEntity> checkoutOpt = checkoutRepository.findByNumber(checkoutNumber);
         if (checkoutOpt.isPresent()) {
@@ -71,26 +142,39 @@ public class CheckoutService {
     }
 
     public ResponseEntity<?> addCheckout(HttpServletRequest request, CheckoutDTO checkoutDTO) {
-        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized: Invalid token");
         }
 
         BigDecimal sum = new BigDecimal("0.00");
 
         List<ItemDTO> items = checkoutDTO.getItems();
+        Map<String, ItemDTO> storeItems = itemService.getItemsByNumbers(items.stream().map(ItemDTO::getNumber).toList());
+        Map<String, Integer> quantities = new HashMap<>();
+        Map<String, Integer> stock = new HashMap<>();
         for (ItemDTO item : items) {
-            BigDecimal itemPrice = itemService.getItemByNumber(item.getNumber()).getPrice();
-            sum = sum.add(itemPrice);
+            ItemDTO storeItem = storeItems.get(item.getNumber());
+            if (storeItem == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Item not found with number: " + item.getNumber());
+            }
+            if (item.getAmount() == null || item.getAmount() < 1) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: Invalid amount for item: " + item.getNumber());
+            }
+            sum = sum.add(storeItem.getPrice());
+            quantities.merge(item.getNumber(), item.getAmount(), Integer::sum);
+            stock.put(item.getNumber(), itemService.getStockAmount(storeItem));
         }
 
         String newCheckoutNumber = generateRandomNumber();
+        if (!stockHoldService.place(newCheckoutNumber, quantities, stock)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: Insufficient stock for checkout");
+        }
 
         CheckoutEntity checkout = new CheckoutEntity();
         checkout.setUserid(checkoutDTO.getUserid());
@@ -100,7 +184,12 @@ public class CheckoutService {
         checkout.setDate(new Date());
         checkout.setNumber(newCheckoutNumber);
 
-        checkoutRepository.save(checkout);
+        try {
+            checkoutRepository.save(checkout);
+        } catch (RuntimeException e) {
+            stockHoldService.release(newCheckoutNumber);
+            throw e;
+        }
 
         return ResponseEntity.ok(checkout);
     }
@@ -127,17 +216,32 @@ public class CheckoutService {
         return dto;
     }
 
-    @Transactional
-    @Scheduled(fixedRate = 7200000)
-    public void removeOldCheckouts() {
-        Calendar calendar = Calendar.getInstance();
-        calendar.add(Calendar.MINUTE, -30);
-        Date thirtyMinutesAgo = calendar.getTime();
+    @PostConstruct
+    public void registerPurgeMetrics() {
+        purgedCheckouts = Counter.builder("checkout.purge.rows")
+                .description("Expired checkouts deleted by the purge job")
+                .register(meterRegistry);
+        Gauge.builder("checkout.purge.lag.seconds", purgeLagSeconds, AtomicLong::get)
+                .description("Age of the oldest expired checkout still present after the last purge run")
+                .register(meterRegistry);
+    }
 
-        List<CheckoutEntity> oldCheckouts = checkoutRepository.findByDateBefore(thirtyMinutesAgo);
-        if (!oldCheckouts.isEmpty()) {
-            checkoutRepository.deleteAll(oldCheckouts);
+    @Scheduled(fixedDelay = 60000)
+    public void removeOldCheckouts() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - CHECKOUT_TTL.toMillis());
+
+        for (int batch = 0; batch < PURGE_MAX_BATCHES; batch++) {
+            List<String> purged = jdbcTemplate.queryForList(PURGE_SQL, String.class, cutoff, PURGE_BATCH_SIZE);
+            purged.forEach(stockHoldService::release);
+            purgedCheckouts.increment(purged.size());
+            if (purged.size() < PURGE_BATCH_SIZE) {
+                break;
+            }
         }
+
+        Timestamp oldest = jdbcTemplate.queryForObject("SELECT min(date) FROM public.checkout", Timestamp.class);
+        long lag = oldest == null ? 0 : (cutoff.getTime() - oldest.getTime()) / 1000;
+        purgeLagSeconds.set(Math.max(lag, 0));
     }
 
 }
@@ -0,0 +1,165 @@
+package com.gemsflare.gemsflare.email;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final int WORKERS = 2;
+    private static final int BATCH_SIZE = 20;
+    private static final int MAX_ATTEMPTS = 8;
+    private static final Duration BASE_BACKOFF = Duration.ofSeconds(30);
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+    private static final Duration STALE_CLAIM = Duration.ofMinutes(10);
+
+    private static final String CLAIM_SQL = "UPDATE public.email_outbox SET status = ?, locked_at = now() " +
+            "WHERE id IN (SELECT id FROM public.email_outbox WHERE status = ? AND next_attempt_at <= now() " +
+            "ORDER BY next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, recipient, subject, body, attempts";
+
+    @Autowired
+    private JavaMailSender mailSender;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Semaphore permits = new Semaphore(WORKERS);
+    private final ExecutorService workers = Executors.newFixedThreadPool(WORKERS);
+
+    @Scheduled(fixedDelay = 2000)
+    public void dispatch() {
+        while (permits.tryAcquire()) {
+            List<OutboxMessage> batch;
+            try {
+                batch = claim();
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+
+            if (batch.isEmpty()) {
+                permits.release();
+                return;
+            }
+
+            workers.execute(() -> {
+                try {
+                    send(batch);
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void releaseStaleClaims() {
+        Timestamp cutoff = new Timestamp(System.currentTimeMillis() - STALE_CLAIM.toMillis());
+        jdbcTemplate.update("UPDATE public.email_outbox SET status = ?, locked_at = NULL WHERE status = ? AND locked_at < ?",
+                EmailOutboxEntity.STATUS_PENDING, EmailOutboxEntity.STATUS_SENDING, cutoff);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private List<OutboxMessage> claim() {
+        return jdbcTemplate.query(CLAIM_SQL, (rs, rowNum) -> new OutboxMessage(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("recipient"),
+                        rs.getString("subject"),
+                        rs.getString("body"),
+                        rs.getInt("attempts")),
+                EmailOutboxEntity.STATUS_SENDING, EmailOutboxEntity.STATUS_PENDING, BATCH_SIZE);
+    }
+
+    private void send(List<OutboxMessage> batch) {
+        Map<MimeMessage, OutboxMessage> messages = new LinkedHashMap<>();
+        for (OutboxMessage outboxMessage : batch) {
+            try {
+                messages.put(toMimeMessage(outboxMessage), outboxMessage);
+            } catch (MessagingException e) {
+                reschedule(outboxMessage, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        try {
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+            markSent(new ArrayList<>(messages.values()));
+        } catch (MailSendException e) {
+            Map<Object, Exception> failed = e.getFailedMessages();
+            List<OutboxMessage> sent = new ArrayList<>();
+            messages.forEach((mimeMessage, outboxMessage) -> {
+                if (failed.containsKey(mimeMessage)) {
+                    reschedule(outboxMessage, failed.get(mimeMessage));
+                } else {
+                    sent.add(outboxMessage);
+                }
+            });
+            markSent(sent);
+        } catch (MailException e) {
+            messages.values().forEach(outboxMessage -> reschedule(outboxMessage, e));
+        }
+    }
+
+    private MimeMessage toMimeMessage(OutboxMessage outboxMessage) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+
+        helper.setTo(outboxMessage.recipient());
+        helper.setSubject(outboxMessage.subject());
+        helper.setText(outboxMessage.body(), true);
+        return message;
+    }
+
+    private void markSent(List<OutboxMessage> sent) {
+        if (sent.isEmpty()) {
+            return;
+        }
+        List<Object[]> ids = new ArrayList<>();
+        sent.forEach(outboxMessage -> ids.add(new Object[]{outboxMessage.id()}));
+        jdbcTemplate.batchUpdate("DELETE FROM public.email_outbox WHERE id = ?", ids);
+    }
+
+    private void reschedule(OutboxMessage outboxMessage, Exception error) {
+        int attempts = outboxMessage.attempts() + 1;
+        String status = attempts >= MAX_ATTEMPTS ? EmailOutboxEntity.STATUS_FAILED : EmailOutboxEntity.STATUS_PENDING;
+        long backoff = Math.min(BASE_BACKOFF.toMillis() << Math.min(attempts - 1, 20), MAX_BACKOFF.toMillis());
+        backoff += ThreadLocalRandom.current().nextLong(backoff / 5 + 1);
+
+        jdbcTemplate.update("UPDATE public.email_outbox SET status = ?, attempts = ?, next_attempt_at = ?, " +
+                        "locked_at = NULL, last_error = ? WHERE id = ?",
+                status, attempts, new Timestamp(System.currentTimeMillis() + backoff), String.valueOf(error.getMessage()),
+                outboxMessage.id());
+    }
+
+    private record OutboxMessage(UUID id, String recipient, String subject, String body, int attempts) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.gemsflare.gemsflare.email;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxEntity, UUID> {
+}
@@ -1,140 +1,65 @@
 package com.gemsflare.gemsflare.email;
 
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+import java.io.StringWriter;
+import java.util.List;
 
 @Service
 public class EmailService {
 
-    @Autowired
-    private JavaMailSender mailSender;
+    private static final String WELCOME_TEMPLATE = "email/welcome";
+    private static final String DELETED_USER_TEMPLATE = "email/deleted-user";
+    private static final String EDITED_PROFILE_TEMPLATE = "email/edited-profile";
+    private static final int BUFFER_SIZE = 4096;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
 
-    public void sendWelcomeEmail(String toEmail, String username) {
-        String subject = "Welcome to Gemsflare!";
+    private static final ThreadLocal<StringWriter> BUFFERS = ThreadLocal.withInitial(() -> new StringWriter(BUFFER_SIZE));
 
-        String body = "<html>"
-                + "<head>"
-                + "<style>"
-                + "body { font-family: Arial, sans-serif; background-color: #f4f4f9; color: #333; margin: 0; padding: 0; }"
-                + ".container { max-width: 600px; margin: 0 auto; background-color: #ffffff; padding: 20px; border-radius: 8px; box-shadow: 0 4px 10px rgba(0, 0, 0, 0.1); }"
-                + ".header { text-align: center; padding: 20px 0; }"
-                + ".header img { width: 120px; }"
-                + ".content { text-align: center; font-size: 18px; margin-top: 20px; }"
-                + ".button { display: inline-block; background-color: #4CAF50; color: white; padding: 10px 20px; text-decoration: none; border-radius: 4px; margin-top: 20px; }"
-                + ".footer { text-align: center; font-size: 14px; margin-top: 30px; color: #777; }"
-                + "</style>"
-                + "</head>"
-                + "<body>"
-                + "<div class='container'>"
-                + "<div class='header'>"
-                + "<img src='https://cdn1.iconfinder.com/data/icons/medieval-7/128/medieval_gem_emerald_diamond_crystal_stone_treasure-1024.png' alt='Gemsflare Logo' />"
-                + "</div>"
-                + "<div class='content'>"
-                + "<h1>Welcome, " + username + "!</h1>"
-                + "<p>Thank you for signing up for Gemsflare. We're excited to have you with us!</p>"
-                + "<p>If you have any questions, feel free to reach out to us at any time.</p>"
-                + "<a href='https://gemsflare.com' class='button'>Get Started</a>"
-                + "</div>"
-                + "<div class='footer'>"
-                + "<p>Best regards,</p>"
-                + "<p><strong>Gemsflare Team</strong></p>"
-                + "</div>"
-                + "</div>"
-                + "</body>"
-                + "</html>";
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+    @Autowired
+    private TemplateEngine templateEngine;
 
-        sendEmail(toEmail, subject, body);
+    @PostConstruct
+    public void warmUpTemplates() {
+        for (String template : List.of(WELCOME_TEMPLATE, DELETED_USER_TEMPLATE, EDITED_PROFILE_TEMPLATE)) {
+            render(template, "");
+        }
     }
 
-    public void sendDeletedUserEmail(String toEmail, String username) {
-        String subject = "Your Gemsflare Account Has Been Deleted";
-
-        String body = "<html>"
-                + "<head>"
-                + "<style>"
-                + "body { font-family: Arial, sans-serif; background-color: #f4f4f9; color: #333; margin: 0; padding: 0; }"
-                + ".container { max-width: 600px; margin: 0 auto; background-color: #ffffff; padding: 20px; border-radius: 8px; box-shadow: 0 4px 10px rgba(0, 0, 0, 0.1); }"
-                + ".header { text-align: center; padding: 20px 0; }"
-                + ".header img { width: 120px; }"
-                + ".content { text-align: center; font-size: 18px; margin-top: 20px; }"
-                + ".footer { text-align: center; font-size: 14px; margin-top: 30px; color: #777; }"
-                + "</style>"
-                + "</head>"
-                + "<body>"
-                + "<div class='container'>"
-                + "<div class='header'>"
-                + "<img src='https://cdn1.iconfinder.com/data/icons/medieval-7/128/medieval_gem_emerald_diamond_crystal_stone_treasure-1024.png' alt='Gemsflare Logo' />"
-                + "</div>"
-                + "<div class='content'>"
-                + "<h1>Dear " + username + ",</h1>"
-                + "<p>We regret to inform you that your account has been successfully deleted from Gemsflare.</p>"
-                + "<p>If this was done by mistake or if you have any questions, please feel free to contact us.</p>"
-                + "<p>We're sorry to see you go, and we hope to serve you again in the future.</p>"
-                + "</div>"
-                + "<div class='footer'>"
-                + "<p>Best regards,</p>"
-                + "<p><strong>Gemsflare Team</strong></p>"
-                + "</div>"
-                + "</div>"
-                + "</body>"
-                + "</html>";
+    public void sendWelcomeEmail(String toEmail, String username) {
+        sendEmail(toEmail, "Welcome to Gemsflare!", render(WELCOME_TEMPLATE, username));
+    }
 
-        sendEmail(toEmail, subject, body);
+    public void sendDeletedUserEmail(String toEmail, String username) {
+        sendEmail(toEmail, "Your Gemsflare Account Has Been Deleted", render(DELETED_USER_TEMPLATE, username));
     }
 
     public void sendEditedProfileEmail(String toEmail, String username) {
-        String subject = "Your Gemsflare Profile Has Been Updated";
-
-        String body = "<html>"
-                + "<head>"
-                + "<style>"
-                + "body { font-family: Arial, sans-serif; background-color: #f4f4f9; color: #333; margin: 0; padding: 0; }"
-                + ".container { max-width: 600px; margin: 0 auto; background-color: #ffffff; padding: 20px; border-radius: 8px; box-shadow: 0 4px 10px rgba(0, 0, 0, 0.1); }"
-                + ".header { text-align: center; padding: 20px 0; }"
-                + ".header img { width: 120px; }"
-                + ".content { text-align: center; font-size: 18px; margin-top: 20px; }"
-                + ".footer { text-align: center; font-size: 14px; margin-top: 30px; color: #777; }"
-                + "</style>"
-                + "</head>"
-                + "<body>"
-                + "<div class='container'>"
-                + "<div class='header'>"
-                + "<img src='https://cdn1.iconfinder.com/data/icons/medieval-7/128/medieval_gem_emerald_diamond_crystal_stone_treasure-1024.png' alt='Gemsflare Logo' />"
-                + "</div>"
-                + "<div class='content'>"
-                + "<h1>Dear " + username + ",</h1>"
-                + "<p>Your Gemsflare profile has been successfully updated.</p>"
-                + "<p>If you did not make this change or have any questions, feel free to contact us.</p>"
-                + "<p>We are always here to assist you!</p>"
-                + "</div>"
-                + "<div class='footer'>"
-                + "<p>Best regards,</p>"
-                + "<p><strong>Gemsflare Team</strong></p>"
-                + "</div>"
-                + "</div>"
-                + "</body>"
-                + "</html>";
-
-        sendEmail(toEmail, subject, body);
+        sendEmail(toEmail, "Your Gemsflare Profile Has Been Updated", render(EDITED_PROFILE_TEMPLATE, username));
     }
 
     public void sendEmail(String toEmail, String subject, String body) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true);
+        emailOutboxRepository.save(new EmailOutboxEntity(toEmail, subject, body));
+    }
+
+    private String render(String template, String username) {
+        Context context = new Context();
+        context.setVariable("username", username);
 
-            helper.setTo(toEmail);
-            helper.setSubject(subject);
-            helper.setText(body, true); // true enables HTML content
+        StringWriter buffer = BUFFERS.get();
+        buffer.getBuffer().setLength(0);
+        templateEngine.process(template, context, buffer);
+        String body = buffer.toString();
 
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            e.printStackTrace();
+        if (buffer.getBuffer().capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            BUFFERS.remove();
         }
+        return body;
     }
-}
\ No newline at end of file
+}
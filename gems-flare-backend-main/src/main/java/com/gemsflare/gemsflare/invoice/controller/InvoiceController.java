@@ -4,13 +4,16 @@ import com.gemsflare.gemsflare.invoice.model.InvoiceDTO;
 import com.gemsflare.gemsflare.invoice.service.InvoiceService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/invoice")
@@ -36,12 +39,26 @@ public class InvoiceController {
     }
 
     @GetMapping("/getInvoicePdfByNumber/{invoiceNumber}")
-    public ResponseEntity<?> getInvoicePdfByNumber(@PathVariable String invoiceNumber) {
-        return invoiceService.getInvoicePdfByNumber(invoiceNumber);
+    public ResponseEntity<?> getInvoicePdfByNumber(@PathVariable String invoiceNumber,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return invoiceService.getInvoicePdfByNumber(invoiceNumber, ifNoneMatch);
     }
 
     @GetMapping("/getInvoicePdfByOrderNumber/{orderNumber}")
-    public ResponseEntity<?> getInvoicePdfByOrderNumber(@PathVariable String orderNumber) {
-        return invoiceService.getInvoicePdfByOrderNumber(orderNumber);
+    public ResponseEntity<?> getInvoicePdfByOrderNumber(@PathVariable String orderNumber,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return invoiceService.getInvoicePdfByOrderNumber(orderNumber, ifNoneMatch);
+    }
+
+    @GetMapping("/streamInvoicePdfByNumber/{invoiceNumber}")
+    public ResponseEntity<StreamingResponseBody> streamInvoicePdfByNumber(@PathVariable String invoiceNumber,
+                                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return invoiceService.streamInvoicePdfByNumber(invoiceNumber, ifNoneMatch);
+    }
+
+    @GetMapping("/streamInvoicePdfByOrderNumber/{orderNumber}")
+    public ResponseEntity<StreamingResponseBody> streamInvoicePdfByOrderNumber(@PathVariable String orderNumber,
+                                                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return invoiceService.streamInvoicePdfByOrderNumber(orderNumber, ifNoneMatch);
     }
 }
@@ -0,0 +1,8 @@
+package com.gemsflare.gemsflare.invoice.model;
+
+public interface InvoicePdfInfo {
+
+    String getSha256();
+
+    Long getSize();
+}
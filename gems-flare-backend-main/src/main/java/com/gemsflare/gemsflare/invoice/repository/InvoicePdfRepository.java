@@ -0,0 +1,23 @@
+package com.gemsflare.gemsflare.invoice.repository;
+
+import com.gemsflare.gemsflare.invoice.jpa.InvoicePdfEntity;
+import com.gemsflare.gemsflare.invoice.model.InvoicePdfInfo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface InvoicePdfRepository extends JpaRepository<InvoicePdfEntity, UUID> {
+
+    Optional<InvoicePdfEntity> findByInvoiceNumber(String invoiceNumber);
+
+    @Query("select p.sha256 from InvoicePdfEntity p where p.invoiceNumber = :invoiceNumber")
+    Optional<String> findSha256ByInvoiceNumber(@Param("invoiceNumber") String invoiceNumber);
+
+    @Query("select p.sha256 as sha256, p.size as size from InvoicePdfEntity p where p.invoiceNumber = :invoiceNumber")
+    Optional<InvoicePdfInfo> findInfoByInvoiceNumber(@Param("invoiceNumber") String invoiceNumber);
+}
@@ -0,0 +1,69 @@
+package com.gemsflare.gemsflare.invoice.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class InvoiceNumberAllocator {
+
+    private static final int BLOCK_SIZE = 50;
+    private static final String LEASE_SQL = "INSERT INTO public.invoice_counter (id, date, counter) " +
+            "VALUES (uuid_generate_v4(), ?, ?) " +
+            "ON CONFLICT (date) DO UPDATE SET counter = public.invoice_counter.counter + EXCLUDED.counter " +
+            "RETURNING counter";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate leaseTransaction;
+    private volatile Block block;
+
+    @PostConstruct
+    public void init() {
+        // a leased block must be committed before any number from it is handed out, whatever the caller's transaction does
+        leaseTransaction = new TransactionTemplate(transactionManager);
+        leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public long next(LocalDate date) {
+        Block current = block;
+        if (current != null && current.date().equals(date)) {
+            long value = current.next().getAndIncrement();
+            if (value <= current.end()) {
+                return value;
+            }
+        }
+        return nextFromNewBlock(date);
+    }
+
+    private synchronized long nextFromNewBlock(LocalDate date) {
+        Block current = block;
+        if (current != null && current.date().equals(date)) {
+            long value = current.next().getAndIncrement();
+            if (value <= current.end()) {
+                return value;
+            }
+        }
+
+        Long end = leaseTransaction.execute(status ->
+                jdbcTemplate.queryForObject(LEASE_SQL, Long.class, Date.valueOf(date), BLOCK_SIZE));
+        Block leased = new Block(date, new AtomicLong(end - BLOCK_SIZE + 1), end);
+        long value = leased.next().getAndIncrement();
+        block = leased;
+        return value;
+    }
+
+    private record Block(LocalDate date, AtomicLong next, long end) {
+    }
+}
@@ -1,35 +1,157 @@
 package com.gemsflare.gemsflare.invoice.service;
 
 import com.gemsflare.gemsflare.invoice.model.InvoiceDTO;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.pdf.BaseFont;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
+import org.xhtmlrenderer.pdf.ITextFontResolver;
 import org.xhtmlrenderer.pdf.ITextRenderer;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class InvoicePdfService {
 
+    public static final int RETRY_AFTER_SECONDS = 5;
+
+    private static final int QUEUE_CAPACITY = 32;
+    private static final long RENDER_TIMEOUT_SECONDS = 30;
+
     private final TemplateEngine templateEngine;
+    private final ThreadPoolExecutor executor;
+    private final List<String> fontPaths;
+    private final ThreadLocal<ITextRenderer> renderers = ThreadLocal.withInitial(this::createRenderer);
+    private final Timer renderTimer;
 
-    public InvoicePdfService(TemplateEngine templateEngine) {
+    public InvoicePdfService(TemplateEngine templateEngine, MeterRegistry meterRegistry,
+                             @Value("${invoice.pdf.font-paths:}") List<String> fontPaths) {
         this.templateEngine = templateEngine;
+        this.fontPaths = fontPaths;
+
+        int workers = Math.max(2, Runtime.getRuntime().availableProcessors());
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "invoice-pdf-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        this.executor.prestartAllCoreThreads();
+
+        this.renderTimer = Timer.builder("invoice.pdf.render")
+                .description("Invoice PDF rendering time including queue wait")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        meterRegistry.gauge("invoice.pdf.queue.size", executor.getQueue(), queue -> queue.size());
     }
 
     public byte[] generatePdf(InvoiceDTO invoiceDTO) throws Exception {
-        Context context = new Context();
-        context.setVariable("invoice", invoiceDTO);
+        return await(() -> render(invoiceDTO));
+    }
 
-        String htmlContent = templateEngine.process("invoice", context);
+    public void streamPdf(InvoiceDTO invoiceDTO, OutputStream out) throws Exception {
+        await(() -> {
+            render(invoiceDTO, StreamUtils.nonClosing(out));
+            return null;
+        });
+    }
+
+    public boolean isSaturated() {
+        return executor.getQueue().remainingCapacity() == 0;
+    }
+
+    private <T> T await(Callable<T> task) throws Exception {
+        long start = System.nanoTime();
+        Future<T> result = executor.submit(task);
+        try {
+            return result.get(RENDER_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        } finally {
+            result.cancel(true);
+            renderTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
 
+    public CompletableFuture<byte[]> generatePdfAsync(InvoiceDTO invoiceDTO) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return render(invoiceDTO);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private ITextRenderer createRenderer() {
         ITextRenderer renderer = new ITextRenderer();
-        renderer.setDocumentFromString(htmlContent);
-        renderer.layout();
+        ITextFontResolver fontResolver = renderer.getFontResolver();
+        for (String fontPath : fontPaths) {
+            try {
+                if (Files.isDirectory(Path.of(fontPath))) {
+                    fontResolver.addFontDirectory(fontPath, true);
+                } else if (Files.isRegularFile(Path.of(fontPath))) {
+                    fontResolver.addFont(fontPath, BaseFont.IDENTITY_H, BaseFont.EMBEDDED);
+                }
+            } catch (DocumentException | IOException e) {
+                // fall back to the built-in base fonts
+            }
+        }
+        return renderer;
+    }
 
+    private byte[] render(InvoiceDTO invoiceDTO) throws Exception {
         try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            renderer.createPDF(baos);
+            render(invoiceDTO, baos);
             return baos.toByteArray();
         }
     }
-}
\ No newline at end of file
+
+    private void render(InvoiceDTO invoiceDTO, OutputStream out) throws Exception {
+        Context context = new Context();
+        context.setVariable("invoice", invoiceDTO);
+
+        String htmlContent = templateEngine.process("invoice", context);
+
+        ITextRenderer renderer = renderers.get();
+        try {
+            renderer.setDocumentFromString(htmlContent);
+            renderer.layout();
+            renderer.createPDF(out);
+        } catch (Exception e) {
+            renderers.remove();
+            throw e;
+        }
+    }
+}
@@ -1,42 +1,74 @@
 package com.gemsflare.gemsflare.invoice.service;
 
-import com.gemsflare.gemsflare.invoice.jpa.InvoiceCounterEntity;
 import com.gemsflare.gemsflare.invoice.jpa.InvoiceEntity;
+import com.gemsflare.gemsflare.invoice.jpa.InvoicePdfEntity;
 import com.gemsflare.gemsflare.invoice.model.InvoiceDTO;
-import com.gemsflare.gemsflare.invoice.repository.InvoiceCounterRepository;
+import com.gemsflare.gemsflare.invoice.model.InvoicePdfInfo;
+import com.gemsflare.gemsflare.invoice.repository.InvoicePdfRepository;
 import com.gemsflare.gemsflare.invoice.repository.InvoiceRepository;
-import com.gemsflare.gemsflare.security.JwtUtil;
+import com.gemsflare.gemsflare.security.AuthContext;
+import com.gemsflare.gemsflare.security.AuthContextResolver;
+import jakarta.annotation.PreDestroy;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.HexFormat;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class InvoiceService {
 
+    private static final int PDF_COPY_CHUNK = 64 * 1024;
+
     @Autowired
-    private JwtUtil jwtUtil;
+    private AuthContextResolver authContextResolver;
     @Autowired
-    private InvoiceCounterRepository invoiceCounterRepository;
+    private InvoiceNumberAllocator invoiceNumberAllocator;
     @Autowired
     private InvoiceRepository invoiceRepository;
     @Autowired
     private InvoicePdfService invoicePdfService;
+    @Autowired
+    private InvoicePdfRepository invoicePdfRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ExecutorService storeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "invoice-pdf-store");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public ResponseEntity<?> addInvoice(HttpServletRequest request, InvoiceDTO invoiceDTO) {
-        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized: Invalid token");
         }
 
@@ -54,6 +86,7 @@ public class InvoiceService {
         invoice.setPayment(invoiceDTO.getPayment());
 
         invoiceRepository.save(invoice);
+        storePdfAsync(invoice);
 
         return ResponseEntity.ok(invoice);
     }
@@ -76,7 +109,7 @@ public class InvoiceService {
         }
     }
 
-    public ResponseEntity<?> getInvoicePdfByNumber(String number) {
+    public ResponseEntity<?> getInvoicePdfByNumber(String number, String ifNoneMatch) {
         try {
             Optional<InvoiceEntity> invoiceOpt = invoiceRepository.findByNumber(number);
             if (invoiceOpt.isEmpty()) {
@@ -84,23 +117,19 @@ public class InvoiceService {
                         .body("Invoice not found with number: " + number);
             }
 
-            InvoiceEntity invoiceEntity = invoiceOpt.get();
-            InvoiceDTO invoiceDTO = invoiceEntityToDTO(invoiceEntity);
-
-            byte[] pdfBytes = invoicePdfService.generatePdf(invoiceDTO);
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=invoice.pdf")
-                    .header(HttpHeaders.CONTENT_TYPE, "application/pdf")
-                    .body(pdfBytes);
+            return pdfResponse(invoiceOpt.get(), ifNoneMatch);
 
+        } catch (RejectedExecutionException | TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(InvoicePdfService.RETRY_AFTER_SECONDS))
+                    .body("Error: PDF rendering is busy, please retry later");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error generating PDF: " + e.getMessage());
         }
     }
 
-    public ResponseEntity<?> getInvoicePdfByOrderNumber(String orderNumber) {
+    public ResponseEntity<?> getInvoicePdfByOrderNumber(String orderNumber, String ifNoneMatch) {
         try {
             Optional<InvoiceEntity> invoiceOpt = invoiceRepository.findByOrdernumber(orderNumber);
             if (invoiceOpt.isEmpty()) {
@@ -108,47 +137,204 @@ public class InvoiceService {
                         .body("Invoice not found with order number: " + orderNumber);
             }
 
-            InvoiceEntity invoiceEntity = invoiceOpt.get();
-            InvoiceDTO invoiceDTO = invoiceEntityToDTO(invoiceEntity);
-
-            byte[] pdfBytes = invoicePdfService.generatePdf(invoiceDTO);
-
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=invoice.pdf")
-                    .header(HttpHeaders.CONTENT_TYPE, "application/pdf")
-                    .body(pdfBytes);
+            return pdfResponse(invoiceOpt.get(), ifNoneMatch);
 
+        } catch (RejectedExecutionException | TimeoutException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(InvoicePdfService.RETRY_AFTER_SECONDS))
+                    .body("Error: PDF rendering is busy, please retry later");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error generating PDF: " + e.getMessage());
         }
     }
 
+    public ResponseEntity<StreamingResponseBody> streamInvoicePdfByNumber(String number, String ifNoneMatch) {
+        Optional<InvoiceEntity> invoiceOpt = invoiceRepository.findByNumber(number);
+        if (invoiceOpt.isEmpty()) {
+            return textResponse(HttpStatus.NOT_FOUND, "Invoice not found with number: " + number);
+        }
+        return streamingPdfResponse(invoiceOpt.get(), ifNoneMatch);
+    }
+
+    public ResponseEntity<StreamingResponseBody> streamInvoicePdfByOrderNumber(String orderNumber, String ifNoneMatch) {
+        Optional<InvoiceEntity> invoiceOpt = invoiceRepository.findByOrdernumber(orderNumber);
+        if (invoiceOpt.isEmpty()) {
+            return textResponse(HttpStatus.NOT_FOUND, "Invoice not found with order number: " + orderNumber);
+        }
+        return streamingPdfResponse(invoiceOpt.get(), ifNoneMatch);
+    }
+
     public String generateInvoiceNumber() {
         LocalDate currentDate = LocalDate.now();
         int year = currentDate.getYear();
         int month = currentDate.getMonthValue();
         int day = currentDate.getDayOfMonth();
 
-        InvoiceCounterEntity counterRecord = null;
-        Optional<InvoiceCounterEntity> counterRecordOpt = invoiceCounterRepository.findByDate(currentDate);
-        if (counterRecordOpt.isPresent()) {
-            counterRecord = counterRecordOpt.get();
+        String formattedCounter = String.format("%06d", invoiceNumberAllocator.next(currentDate));
+
+        return String.format("GEMSFLARE-%d-%02d-%02d-%s", year, month, day, formattedCounter);
+    }
+
+    private ResponseEntity<?> pdfResponse(InvoiceEntity invoice, String ifNoneMatch) throws Exception {
+        Optional<String> storedHash = invoicePdfRepository.findSha256ByInvoiceNumber(invoice.getNumber());
+        if (storedHash.isPresent() && etagMatches(ifNoneMatch, storedHash.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(storedHash.get()).build();
         }
 
-        if (counterRecord == null) {
-            counterRecord = new InvoiceCounterEntity();
-            counterRecord.setDate(currentDate);
-            counterRecord.setCounter(1);
-            invoiceCounterRepository.save(counterRecord);
-        } else {
-            counterRecord.setCounter(counterRecord.getCounter() + 1);
-            invoiceCounterRepository.save(counterRecord);
+        InvoicePdfEntity pdf = storedHash.isPresent()
+                ? invoicePdfRepository.findByInvoiceNumber(invoice.getNumber()).orElse(null)
+                : null;
+        if (pdf == null) {
+            pdf = storePdf(invoice.getNumber(), invoicePdfService.generatePdf(invoiceEntityToDTO(invoice)));
+            if (etagMatches(ifNoneMatch, pdf.getSha256())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(pdf.getSha256()).build();
+            }
         }
 
-        String formattedCounter = String.format("%06d", counterRecord.getCounter());
+        return ResponseEntity.ok()
+                .eTag(pdf.getSha256())
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=invoice.pdf")
+                .header(HttpHeaders.CONTENT_TYPE, "application/pdf")
+                .body(pdf.getContent());
+    }
 
-        return String.format("GEMSFLARE-%d-%02d-%02d-%s", year, month, day, formattedCounter);
+    private ResponseEntity<StreamingResponseBody> streamingPdfResponse(InvoiceEntity invoice, String ifNoneMatch) {
+        String invoiceNumber = invoice.getNumber();
+        Optional<InvoicePdfInfo> stored = invoicePdfRepository.findInfoByInvoiceNumber(invoiceNumber);
+
+        if (stored.isPresent()) {
+            String hash = stored.get().getSha256();
+            if (etagMatches(ifNoneMatch, hash)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(hash).build();
+            }
+
+            return ResponseEntity.ok()
+                    .eTag(hash)
+                    .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate())
+                    .contentLength(stored.get().getSize())
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=invoice.pdf")
+                    .contentType(MediaType.APPLICATION_PDF)
+                    .body(out -> copyStoredPdf(invoiceNumber, stored.get().getSize(), out));
+        }
+
+        if (invoicePdfService.isSaturated()) {
+            return busyResponse();
+        }
+
+        InvoiceDTO invoiceDTO = invoiceEntityToDTO(invoice);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=invoice.pdf")
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(out -> {
+                    try {
+                        invoicePdfService.streamPdf(invoiceDTO, out);
+                    } catch (IOException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        throw new IOException("Error generating PDF: " + e.getMessage(), e);
+                    }
+                    storePdfAsync(invoice);
+                });
+    }
+
+    private void copyStoredPdf(String invoiceNumber, long size, OutputStream out) throws IOException {
+        int length = Math.toIntExact(size);
+        for (int offset = 0; offset < length; offset += PDF_COPY_CHUNK) {
+            byte[] chunk = jdbcTemplate.queryForObject(
+                    "SELECT substring(content FROM ? FOR ?) FROM public.invoice_pdf WHERE invoice_number = ?",
+                    byte[].class, offset + 1, PDF_COPY_CHUNK, invoiceNumber);
+            out.write(chunk);
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> busyResponse() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(InvoicePdfService.RETRY_AFTER_SECONDS))
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(textBody("Error: PDF rendering is busy, please retry later"));
+    }
+
+    private ResponseEntity<StreamingResponseBody> textResponse(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(textBody(message));
+    }
+
+    private StreamingResponseBody textBody(String message) {
+        return out -> out.write(message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void storePdfAsync(InvoiceEntity invoice) {
+        InvoiceDTO invoiceDTO = invoiceEntityToDTO(invoice);
+        afterCommit(() -> {
+            try {
+                invoicePdfService.generatePdfAsync(invoiceDTO)
+                        .thenAcceptAsync(pdf -> storePdf(invoiceDTO.getNumber(), pdf), storeExecutor)
+                        .exceptionally(e -> {
+                            // nothing is stored, so the PDF is rendered on its first download instead
+                            return null;
+                        });
+            } catch (RejectedExecutionException e) {
+                // the PDF is rendered on its first download instead
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        storeExecutor.shutdown();
+    }
+
+    private InvoicePdfEntity storePdf(String invoiceNumber, byte[] content) {
+        InvoicePdfEntity pdf = new InvoicePdfEntity(invoiceNumber, content, sha256Hex(content));
+        try {
+            return invoicePdfRepository.save(pdf);
+        } catch (DataIntegrityViolationException e) {
+            return invoicePdfRepository.findByInvoiceNumber(invoiceNumber).orElse(pdf);
+        }
+    }
+
+    private boolean etagMatches(String ifNoneMatch, String hash) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String value = tag.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.replace("\"", "").equals(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String sha256Hex(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     private InvoiceDTO invoiceEntityToDTO(InvoiceEntity invoiceEntity) {
@@ -30,6 +30,12 @@ public class ItemController {
         return itemService.getAllItems(page, size);
     }
 
+    @GetMapping("/getItemsByCursor")
+    public ResponseEntity<?> getItemsByCursor(@RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "20") int size) {
+        return itemService.getItemsByCursor(cursor, size);
+    }
+
     @GetMapping("/getAllCategories")
     public ResponseEntity<?> getAllCategories() {
         return itemService.getAllCategories();
@@ -54,6 +60,24 @@ public class ItemController {
         return itemService.getItemsByName(name, page, size);
     }
 
+    @GetMapping("/searchItems")
+    public ResponseEntity<?> searchItems(@RequestParam String query,
+                                         @RequestParam(defaultValue = "0") int page,
+                                         @RequestParam(defaultValue = "20") int size) {
+        return itemService.searchItems(query, page, size);
+    }
+
+    @GetMapping("/facetedSearch")
+    public ResponseEntity<?> facetedSearch(@RequestParam(required = false) List<String> categories,
+                                           @RequestParam(required = false) List<String> colorGroups,
+                                           @RequestParam(required = false) BigDecimal minPrice,
+                                           @RequestParam(required = false) BigDecimal maxPrice,
+                                           @RequestParam(required = false) Boolean inStock,
+                                           @RequestParam(defaultValue = "0") int page,
+                                           @RequestParam(defaultValue = "20") int size) {
+        return itemService.facetedSearch(categories, colorGroups, minPrice, maxPrice, inStock, page, size);
+    }
+
     @GetMapping("/getItemsByCategory")
     public ResponseEntity<?> getItemsByCategory(@RequestParam String category,
                                             @RequestParam(defaultValue = "0") int page,
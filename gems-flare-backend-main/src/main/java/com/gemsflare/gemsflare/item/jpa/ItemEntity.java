@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
@@ -16,7 +17,10 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
-@Table(name = "item", schema = "public")
+@Table(name = "item", schema = "public", indexes = {
+        @Index(name = "idx_item_name_id", columnList = "name, id"),
+        @Index(name = "uk_item_number", columnList = "number", unique = true)
+})
 @NoArgsConstructor
 @AllArgsConstructor
 public class ItemEntity {
@@ -44,7 +48,7 @@ public class ItemEntity {
     @Column(nullable = false)
     private BigDecimal price;
 
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private Integer amount;
 
     @Column(nullable = false)
@@ -53,6 +57,9 @@ public class ItemEntity {
     @Column(nullable = true)
     private String object_src;
 
+    @Column(nullable = true)
+    private String model_src;
+
     public UUID getId() {
         return id;
     }
@@ -132,4 +139,12 @@ public class ItemEntity {
     public void setObject_src(String object_src) {
         this.object_src = object_src;
     }
+
+    public String getModel_src() {
+        return model_src;
+    }
+
+    public void setModel_src(String model_src) {
+        this.model_src = model_src;
+    }
 }
@@ -0,0 +1,68 @@
+package com.gemsflare.gemsflare.item.jpa;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Entity
+@Table(name = "item_facet", schema = "public",
+        uniqueConstraints = @UniqueConstraint(name = "uk_item_facet_facet_value_item", columnNames = {"facet", "facet_value", "item_id"}),
+        indexes = @Index(name = "idx_item_facet_item_id", columnList = "item_id"))
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemFacetEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Column(name = "item_id", nullable = false)
+    private UUID itemId;
+
+    @Column(nullable = false)
+    private String facet;
+
+    @Column(name = "facet_value", nullable = false)
+    private String value;
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(UUID itemId) {
+        this.itemId = itemId;
+    }
+
+    public String getFacet() {
+        return facet;
+    }
+
+    public void setFacet(String facet) {
+        this.facet = facet;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+}
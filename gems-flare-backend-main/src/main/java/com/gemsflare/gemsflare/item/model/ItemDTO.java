@@ -40,6 +40,9 @@ public class ItemDTO {
     @JsonProperty("object_src")
     private String object_src;
 
+    @JsonProperty("model_src")
+    private String model_src;
+
     public UUID getId() {
         return id;
     }
@@ -120,6 +123,14 @@ public class ItemDTO {
         this.object_src = object_src;
     }
 
+    public String getModel_src() {
+        return model_src;
+    }
+
+    public void setModel_src(String model_src) {
+        this.model_src = model_src;
+    }
+
     public ItemDTO(UUID id, String name, String description, String number, String category, List<String> color_groups, BigDecimal price, Integer amount, String img_src,
                    String object_src) {
         this.id = id;
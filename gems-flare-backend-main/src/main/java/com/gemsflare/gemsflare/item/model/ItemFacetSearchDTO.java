@@ -0,0 +1,25 @@
+package com.gemsflare.gemsflare.item.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gemsflare.gemsflare.item.jpa.ItemEntity;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Slice;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+public class ItemFacetSearchDTO {
+
+    @JsonProperty("items")
+    private Slice<ItemEntity> items;
+
+    @JsonProperty("facets")
+    private Map<String, Map<String, Long>> facets;
+
+    public ItemFacetSearchDTO(Slice<ItemEntity> items, Map<String, Map<String, Long>> facets) {
+        this.items = items;
+        this.facets = facets;
+    }
+}
@@ -0,0 +1,13 @@
+package com.gemsflare.gemsflare.item.repository;
+
+import com.gemsflare.gemsflare.item.jpa.ItemFacetCountEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ItemFacetCountRepository extends JpaRepository<ItemFacetCountEntity, UUID> {
+    List<ItemFacetCountEntity> findByItemCountGreaterThanOrderByFacetAscValueAsc(Long itemCount);
+}
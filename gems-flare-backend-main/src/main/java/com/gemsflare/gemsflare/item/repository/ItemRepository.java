@@ -5,19 +5,55 @@ import com.gemsflare.gemsflare.item.jpa.ItemEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface ItemRepository extends JpaRepository<ItemEntity, UUID> {
+public interface ItemRepository extends JpaRepository<ItemEntity, UUID>, JpaSpecificationExecutor<ItemEntity>, ItemRepositoryCustom {
     Optional<ItemEntity> findByName(String name);
     Optional<ItemEntity> findByNumber(String number);
     Page<ItemEntity> findAll(Pageable pageable);
     Page<ItemEntity> findByNumberIn(List<String> numbers, Pageable pageable);
+    List<ItemEntity> findByNumberIn(Collection<String> numbers);
     Page<ItemEntity> findByNameContainingIgnoreCase(String name, Pageable pageable);
     Page<ItemEntity> findByCategoryContainingIgnoreCase(String name, Pageable pageable);
     boolean existsByCategory(String category);
+
+    @Modifying
+    @Transactional
+    @Query("update ItemEntity i set i.amount = i.amount + :delta where i.number = :number")
+    int addAmount(@Param("number") String number, @Param("delta") int delta);
+
+    @Modifying
+    @Transactional
+    @Query("update ItemEntity i set i.amount = :amount where i.number = :number")
+    int setAmount(@Param("number") String number, @Param("amount") int amount);
+
+    @Modifying
+    @Transactional
+    @Query("update ItemEntity i set i.model_src = :modelSrc where i.number = :number and i.object_src = :objectSrc")
+    int updateModelSrc(@Param("number") String number, @Param("objectSrc") String objectSrc, @Param("modelSrc") String modelSrc);
+
+    @Query(value = "SELECT i.* FROM public.item i " +
+            "WHERE i.search_vector @@ websearch_to_tsquery('simple', :query) OR i.name % :query " +
+            "ORDER BY ts_rank(i.search_vector, websearch_to_tsquery('simple', :query)) DESC, " +
+            "similarity(i.name, :query) DESC, i.id " +
+            "LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<ItemEntity> searchItems(@Param("query") String query, @Param("limit") int limit, @Param("offset") long offset);
+
+    @Query(value = "SELECT * FROM public.item i ORDER BY i.name, i.id LIMIT :limit", nativeQuery = true)
+    List<ItemEntity> findFirstKeysetPage(@Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM public.item i WHERE i.name >= :name AND (i.name > :name OR i.id > :id) " +
+            "ORDER BY i.name, i.id LIMIT :limit", nativeQuery = true)
+    List<ItemEntity> findKeysetPageAfter(@Param("name") String name, @Param("id") UUID id, @Param("limit") int limit);
 }
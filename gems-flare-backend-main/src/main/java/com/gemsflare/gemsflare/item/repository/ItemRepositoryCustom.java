@@ -0,0 +1,10 @@
+package com.gemsflare.gemsflare.item.repository;
+
+import com.gemsflare.gemsflare.item.jpa.ItemEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface ItemRepositoryCustom {
+    Slice<ItemEntity> findSlice(Specification<ItemEntity> specification, Pageable pageable);
+}
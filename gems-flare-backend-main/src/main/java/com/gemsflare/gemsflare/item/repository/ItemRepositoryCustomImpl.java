@@ -0,0 +1,46 @@
+package com.gemsflare.gemsflare.item.repository;
+
+import com.gemsflare.gemsflare.item.jpa.ItemEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+public class ItemRepositoryCustomImpl implements ItemRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<ItemEntity> findSlice(Specification<ItemEntity> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ItemEntity> query = cb.createQuery(ItemEntity.class);
+        Root<ItemEntity> item = query.from(ItemEntity.class);
+
+        Predicate predicate = specification.toPredicate(item, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(item).orderBy(QueryUtils.toOrders(pageable.getSort(), item, cb));
+
+        List<ItemEntity> items = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = items.size() > pageable.getPageSize();
+        if (hasNext) {
+            items = items.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(items, pageable, hasNext);
+    }
+}
@@ -0,0 +1,53 @@
+package com.gemsflare.gemsflare.item.repository;
+
+import com.gemsflare.gemsflare.item.jpa.ItemEntity;
+import com.gemsflare.gemsflare.item.jpa.ItemFacetEntity;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public final class ItemSpecifications {
+
+    private static final String COLOR_GROUP_FACET = "color_group";
+
+    private ItemSpecifications() {
+    }
+
+    public static Specification<ItemEntity> withFacets(List<String> categories, List<String> colorGroups,
+                                                       BigDecimal minPrice, BigDecimal maxPrice, Boolean inStock) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (categories != null && !categories.isEmpty()) {
+                predicates.add(root.get("category").in(categories));
+            }
+
+            if (colorGroups != null && !colorGroups.isEmpty()) {
+                Subquery<UUID> colored = query.subquery(UUID.class);
+                Root<ItemFacetEntity> facet = colored.from(ItemFacetEntity.class);
+                colored.select(facet.<UUID>get("itemId"))
+                        .where(cb.equal(facet.get("facet"), COLOR_GROUP_FACET), facet.get("value").in(colorGroups));
+                predicates.add(root.get("id").in(colored));
+            }
+
+            if (minPrice != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<BigDecimal>get("price"), minPrice));
+            }
+            if (maxPrice != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.<BigDecimal>get("price"), maxPrice));
+            }
+
+            if (inStock != null) {
+                predicates.add(inStock ? cb.greaterThan(root.<Integer>get("amount"), 0) : cb.lessThanOrEqualTo(root.<Integer>get("amount"), 0));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -0,0 +1,265 @@
+package com.gemsflare.gemsflare.item.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Service
+public class HotInventoryService {
+
+    private static final String CHECKPOINT_NAME = "hot-items";
+    private static final int STRIPES = 8;
+
+    @Value("${inventory.hot-items.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventory.hot-items.numbers:}")
+    private Set<String> hotItemNumbers;
+
+    @Value("${inventory.hot-items.wal-path:inventory.wal}")
+    private String walPath;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ItemCache itemCache;
+
+    private final Map<String, StripedInventoryCounter> counters = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> pending = new ConcurrentHashMap<>();
+    private final ReadWriteLock flushLock = new ReentrantReadWriteLock();
+    private InventoryWriteAheadLog wal;
+    private volatile boolean ready;
+    private long checkpointSeq;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void recover() throws IOException {
+        if (!enabled || hotItemNumbers.isEmpty()) {
+            return;
+        }
+
+        wal = new InventoryWriteAheadLog(Path.of(walPath));
+        long checkpoint = readCheckpoint();
+        long[] lastSeq = {checkpoint};
+        Map<String, Integer> unflushed = new TreeMap<>();
+        wal.replay(entry -> {
+            if (entry.seq() > checkpoint) {
+                unflushed.merge(entry.itemNumber(), entry.delta(), Integer::sum);
+                lastSeq[0] = Math.max(lastSeq[0], entry.seq());
+            }
+        });
+        if (lastSeq[0] > checkpoint) {
+            writeBack(unflushed, lastSeq[0]);
+        }
+        checkpointSeq = lastSeq[0];
+        wal.open(lastSeq[0]);
+        wal.deleteThrough(lastSeq[0]);
+
+        for (String itemNumber : hotItemNumbers) {
+            List<Integer> amounts = jdbcTemplate.queryForList(
+                    "SELECT amount FROM public.item WHERE number = ?", Integer.class, itemNumber);
+            if (!amounts.isEmpty()) {
+                counters.put(itemNumber, new StripedInventoryCounter(STRIPES, amounts.get(0)));
+                pending.put(itemNumber, new AtomicInteger());
+            }
+        }
+        ready = true;
+    }
+
+    public boolean isHot(String itemNumber) {
+        return ready && counters.containsKey(itemNumber);
+    }
+
+    public Integer getAvailable(String itemNumber) {
+        StripedInventoryCounter counter = ready ? counters.get(itemNumber) : null;
+        return counter == null ? null : counter.sum();
+    }
+
+    public boolean adjust(String itemNumber, int delta) {
+        if (!isHot(itemNumber)) {
+            throw new IllegalArgumentException("Item is not tracked as hot: " + itemNumber);
+        }
+        if (delta == 0) {
+            return true;
+        }
+
+        flushLock.readLock().lock();
+        try {
+            StripedInventoryCounter counter = counters.get(itemNumber);
+            if (delta < 0) {
+                if (!counter.tryTake(-delta)) {
+                    return false;
+                }
+                try {
+                    wal.append(itemNumber, delta);
+                } catch (IOException e) {
+                    counter.add(-delta);
+                    throw new UncheckedIOException(e);
+                }
+            } else {
+                try {
+                    wal.append(itemNumber, delta);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                counter.add(delta);
+            }
+            pending.get(itemNumber).addAndGet(delta);
+            return true;
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    public boolean tryReserve(String itemNumber, int quantity) {
+        if (!isHot(itemNumber)) {
+            throw new IllegalArgumentException("Item is not tracked as hot: " + itemNumber);
+        }
+        return counters.get(itemNumber).tryTake(quantity);
+    }
+
+    public void commitReservation(String itemNumber, int quantity) {
+        flushLock.readLock().lock();
+        try {
+            pending.get(itemNumber).addAndGet(-quantity);
+            wal.append(itemNumber, -quantity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            flushLock.readLock().unlock();
+        }
+    }
+
+    public void releaseReservation(String itemNumber, int quantity) {
+        counters.get(itemNumber).add(quantity);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.hot-items.flush-interval-ms:500}")
+    public synchronized void flush() {
+        if (!ready) {
+            return;
+        }
+
+        Map<String, Integer> deltas;
+        long seq;
+        flushLock.writeLock().lock();
+        try {
+            wal.rotate();
+            seq = wal.lastSeq();
+            deltas = drainPending();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+        if (deltas.isEmpty() && seq == checkpointSeq) {
+            return;
+        }
+
+        try {
+            writeBack(deltas, seq);
+        } catch (RuntimeException e) {
+            deltas.forEach((itemNumber, delta) -> pending.get(itemNumber).addAndGet(delta));
+            throw e;
+        }
+        checkpointSeq = seq;
+        deltas.keySet().forEach(itemCache::evict);
+
+        try {
+            wal.deleteThrough(seq);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public synchronized void overwrite(String itemNumber, int amount) {
+        if (!isHot(itemNumber)) {
+            return;
+        }
+
+        flushLock.writeLock().lock();
+        try {
+            long seq = wal.lastSeq();
+            Map<String, Integer> deltas = drainPending();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    applyDeltas(deltas, seq);
+                    jdbcTemplate.update("UPDATE public.item SET amount = ? WHERE number = ?", amount, itemNumber);
+                });
+            } catch (RuntimeException e) {
+                deltas.forEach((number, delta) -> pending.get(number).addAndGet(delta));
+                throw e;
+            }
+            checkpointSeq = seq;
+            counters.put(itemNumber, new StripedInventoryCounter(STRIPES, amount));
+            deltas.keySet().forEach(itemCache::evict);
+            itemCache.evict(itemNumber);
+            wal.rotate();
+            wal.deleteThrough(seq);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            flushLock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (ready) {
+            flush();
+            wal.close();
+        }
+    }
+
+    private Map<String, Integer> drainPending() {
+        Map<String, Integer> deltas = new TreeMap<>();
+        pending.forEach((itemNumber, delta) -> {
+            int value = delta.getAndSet(0);
+            if (value != 0) {
+                deltas.put(itemNumber, value);
+            }
+        });
+        return deltas;
+    }
+
+    private void writeBack(Map<String, Integer> deltas, long seq) {
+        transactionTemplate.executeWithoutResult(status -> applyDeltas(deltas, seq));
+    }
+
+    private void applyDeltas(Map<String, Integer> deltas, long seq) {
+        if (!deltas.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>();
+            deltas.forEach((itemNumber, delta) -> rows.add(new Object[]{delta, itemNumber}));
+            jdbcTemplate.batchUpdate("UPDATE public.item SET amount = amount + ? WHERE number = ?", rows);
+        }
+        jdbcTemplate.update("INSERT INTO public.inventory_checkpoint (name, wal_seq, updated_at) VALUES (?, ?, now()) " +
+                "ON CONFLICT (name) DO UPDATE SET wal_seq = EXCLUDED.wal_seq, updated_at = EXCLUDED.updated_at",
+                CHECKPOINT_NAME, seq);
+    }
+
+    private long readCheckpoint() {
+        List<Long> seqs = jdbcTemplate.queryForList(
+                "SELECT wal_seq FROM public.inventory_checkpoint WHERE name = ?", Long.class, CHECKPOINT_NAME);
+        return seqs.isEmpty() ? 0L : seqs.get(0);
+    }
+}
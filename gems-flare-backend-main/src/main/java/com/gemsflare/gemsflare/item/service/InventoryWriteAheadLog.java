@@ -0,0 +1,185 @@
+package com.gemsflare.gemsflare.item.service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Append-only log split into segment files named {@code <path>.<first seq>}. Segments are rotated at every
+ * checkpoint and deleted once all of their records are checkpointed, so the log only ever holds unflushed deltas.
+ * Appends are group-committed: records are written under the log monitor, and one fsync outside it covers every
+ * record written before it started, so concurrent appenders share a single fsync.
+ */
+class InventoryWriteAheadLog implements Closeable {
+
+    record Entry(long seq, String itemNumber, int delta) {
+    }
+
+    private static final long LEGACY_SEGMENT_START = 0;
+
+    private final Path path;
+    private final Path directory;
+    private final String segmentPrefix;
+    private final Object syncLock = new Object();
+    private FileChannel channel;
+    private long segmentStart;
+    private long lastSeq;
+    private long syncedSeq;
+
+    InventoryWriteAheadLog(Path path) {
+        this.path = path.toAbsolutePath();
+        this.directory = this.path.getParent();
+        this.segmentPrefix = this.path.getFileName() + ".";
+    }
+
+    void replay(Consumer<Entry> consumer) throws IOException {
+        for (Path segment : segments().values()) {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(segment))) {
+                ByteArrayOutputStream line = new ByteArrayOutputStream();
+                int b;
+                while ((b = in.read()) != -1) {
+                    if (b != '\n') {
+                        line.write(b);
+                        continue;
+                    }
+                    Entry entry = parse(line.toString(StandardCharsets.UTF_8));
+                    if (entry != null) {
+                        consumer.accept(entry);
+                    }
+                    line.reset();
+                }
+                // bytes after the last newline are a record torn by a crash
+            }
+        }
+    }
+
+    synchronized void open(long lastSeq) throws IOException {
+        Files.createDirectories(directory);
+        this.lastSeq = lastSeq;
+        openSegment();
+        synchronized (syncLock) {
+            syncedSeq = lastSeq;
+        }
+    }
+
+    long append(String itemNumber, int delta) throws IOException {
+        long seq;
+        synchronized (this) {
+            seq = lastSeq + 1;
+            ByteBuffer record = ByteBuffer.wrap((seq + ";" + itemNumber + ";" + delta + "\n").getBytes(StandardCharsets.UTF_8));
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            lastSeq = seq;
+        }
+        sync(seq);
+        return seq;
+    }
+
+    private void sync(long seq) throws IOException {
+        synchronized (syncLock) {
+            if (syncedSeq >= seq) {
+                return;
+            }
+            long target;
+            FileChannel current;
+            synchronized (this) {
+                target = lastSeq;
+                current = channel;
+            }
+            current.force(false);
+            syncedSeq = target;
+        }
+    }
+
+    synchronized long lastSeq() {
+        return lastSeq;
+    }
+
+    void rotate() throws IOException {
+        synchronized (syncLock) {
+            synchronized (this) {
+                if (segmentStart == lastSeq + 1) {
+                    return;
+                }
+                channel.force(false);
+                syncedSeq = lastSeq;
+                channel.close();
+                openSegment();
+            }
+        }
+    }
+
+    synchronized void deleteThrough(long seq) throws IOException {
+        Long next = null;
+        for (Map.Entry<Long, Path> segment : segments().descendingMap().entrySet()) {
+            long start = segment.getKey();
+            if (start != segmentStart && next != null && next - 1 <= seq) {
+                Files.deleteIfExists(segment.getValue());
+            }
+            next = start;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (syncLock) {
+            synchronized (this) {
+                if (channel != null) {
+                    channel.close();
+                }
+            }
+        }
+    }
+
+    private void openSegment() throws IOException {
+        segmentStart = lastSeq + 1;
+        channel = FileChannel.open(directory.resolve(segmentPrefix + segmentStart),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private TreeMap<Long, Path> segments() throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        if (Files.exists(path)) {
+            segments.put(LEGACY_SEGMENT_START, path);
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, segmentPrefix + "*")) {
+            for (Path file : files) {
+                String suffix = file.getFileName().toString().substring(segmentPrefix.length());
+                try {
+                    segments.put(Long.parseLong(suffix), file);
+                } catch (NumberFormatException e) {
+                    // not a segment
+                }
+            }
+        }
+        return segments;
+    }
+
+    private static Entry parse(String line) {
+        String[] parts = line.split(";");
+        if (parts.length != 3) {
+            return null;
+        }
+        try {
+            return new Entry(Long.parseLong(parts[0]), parts[1], Integer.parseInt(parts[2]));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
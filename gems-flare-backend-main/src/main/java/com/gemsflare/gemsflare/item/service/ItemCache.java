@@ -0,0 +1,86 @@
+package com.gemsflare.gemsflare.item.service;
+
+import com.gemsflare.gemsflare.item.jpa.ItemEntity;
+import com.gemsflare.gemsflare.item.model.ItemDTO;
+import com.gemsflare.gemsflare.item.repository.ItemRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+public class ItemCache {
+    private static final Duration TTL = Duration.ofMinutes(10);
+    private static final int MAX_SIZE = 5_000;
+
+    private final ItemRepository itemRepository;
+    private final Cache<String, ItemDTO> items = Caffeine.newBuilder()
+            .expireAfterWrite(TTL)
+            .maximumSize(MAX_SIZE)
+            .recordStats()
+            .build();
+
+    public ItemCache(ItemRepository itemRepository, MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        CaffeineCacheMetrics.monitor(meterRegistry, items, "items");
+    }
+
+    public ItemDTO get(String itemNumber) {
+        if (itemNumber == null) {
+            return null;
+        }
+        return copy(items.get(itemNumber, number -> itemRepository.findByNumber(number).map(ItemCache::toDTO).orElse(null)));
+    }
+
+    public Map<String, ItemDTO> getAll(Collection<String> itemNumbers) {
+        Map<String, ItemDTO> cached = items.getAll(itemNumbers, numbers -> itemRepository.findByNumberIn(List.copyOf(numbers)).stream()
+                .map(ItemCache::toDTO)
+                .collect(Collectors.toMap(ItemDTO::getNumber, Function.identity(), (first, second) -> first)));
+        Map<String, ItemDTO> copies = new LinkedHashMap<>();
+        cached.forEach((itemNumber, item) -> copies.put(itemNumber, copy(item)));
+        return copies;
+    }
+
+    public void evict(String itemNumber) {
+        if (itemNumber != null) {
+            items.invalidate(itemNumber);
+        }
+    }
+
+    private static ItemDTO copy(ItemDTO item) {
+        if (item == null) {
+            return null;
+        }
+        ItemDTO copy = new ItemDTO(item.getId(), item.getName(), item.getDescription(), item.getNumber(), item.getCategory(),
+                item.getColor_groups() == null ? null : new ArrayList<>(item.getColor_groups()),
+                item.getPrice(), item.getAmount(), item.getImg_src(), item.getObject_src());
+        copy.setModel_src(item.getModel_src());
+        return copy;
+    }
+
+    static ItemDTO toDTO(ItemEntity itemEntity) {
+        ItemDTO dto = new ItemDTO();
+        dto.setId(itemEntity.getId());
+        dto.setName(itemEntity.getName());
+        dto.setNumber(itemEntity.getNumber());
+        dto.setDescription(itemEntity.getDescription());
+        dto.setCategory(itemEntity.getCategory());
+        dto.setColor_groups(itemEntity.getColor_groups());
+        dto.setPrice(itemEntity.getPrice());
+        dto.setAmount(itemEntity.getAmount());
+        dto.setImg_src(itemEntity.getImg_src());
+        dto.setObject_src(itemEntity.getObject_src());
+        dto.setModel_src(itemEntity.getModel_src());
+        return dto;
+    }
+}
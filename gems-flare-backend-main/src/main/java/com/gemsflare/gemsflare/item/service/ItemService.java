@@ -2,31 +2,45 @@ package com.gemsflare.gemsflare.item.service;
 
 import com.gemsflare.gemsflare.item.jpa.CategoryEntity;
 import com.gemsflare.gemsflare.item.jpa.ItemEntity;
+import com.gemsflare.gemsflare.item.jpa.ItemFacetCountEntity;
 import com.gemsflare.gemsflare.item.model.ItemDTO;
+import com.gemsflare.gemsflare.item.model.ItemFacetSearchDTO;
 import com.gemsflare.gemsflare.item.repository.CategoryRepository;
+import com.gemsflare.gemsflare.item.repository.ItemFacetCountRepository;
 import com.gemsflare.gemsflare.item.repository.ItemRepository;
+import com.gemsflare.gemsflare.item.repository.ItemSpecifications;
 import com.gemsflare.gemsflare.permission.service.PermissionService;
-import com.gemsflare.gemsflare.security.JwtUtil;
+import com.gemsflare.gemsflare.security.AuthContext;
+import com.gemsflare.gemsflare.security.AuthContextResolver;
 import com.gemsflare.gemsflare.storage.service.StorageFolderService;
 import com.gemsflare.gemsflare.storage.service.StorageImageService;
 import com.gemsflare.gemsflare.storage.service.StorageObjectService;
 import com.gemsflare.gemsflare.user.jpa.UserEntity;
 import com.gemsflare.gemsflare.user.repository.UserRepository;
 import com.gemsflare.gemsflare.user.service.UserService;
+import com.gemsflare.gemsflare.utils.CursorPage;
+import com.gemsflare.gemsflare.utils.KeysetCursor;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.HttpHeaders;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -42,12 +56,18 @@ public class ItemService {
     @Autowired
     private PermissionService permissionService;
     @Autowired
-    private JwtUtil jwtUtil;
+    private AuthContextResolver authContextResolver;
     @Autowired
     private ItemRepository itemRepository;
     @Autowired
+    private ItemCache itemCache;
+    @Autowired
+    private HotInventoryService hotInventoryService;
+    @Autowired
     private CategoryRepository categoryRepository;
     @Autowired
+    private ItemFacetCountRepository itemFacetCountRepository;
+    @Autowired
     private UserRepository userRepository;
     @Autowired
     private StorageFolderService folderService;
@@ -57,6 +77,8 @@ public class ItemService {
     private StorageObjectService objectService;
     @Autowired
     private UserService userService;
+    @Autowired
+    private ModelConversionService modelConversionService;
 
     private String buildFileUrl(String itemNumber, String fileName) {
         return String.format("%s/%s/%s", baseStorageUrl, itemNumber, fileName);
@@ -73,6 +95,37 @@ public class ItemService {
         return ResponseEntity.ok(itemsPage);
     }
 
+    public ResponseEntity<?> getItemsByCursor(String cursor, int size) {
+        if (size < 1) {
+            return ResponseEntity.status(400).body("Error: Size must be at least 1");
+        }
+
+        List<ItemEntity> items;
+        try {
+            if (cursor == null || cursor.isEmpty()) {
+                items = itemRepository.findFirstKeysetPage(size + 1);
+            } else {
+                KeysetCursor after = KeysetCursor.decode(cursor);
+                items = itemRepository.findKeysetPageAfter(after.getSortKey(), after.getId(), size + 1);
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body("Error: Invalid cursor");
+        }
+
+        if (items.isEmpty()) {
+            return ResponseEntity.status(404).body("No items found");
+        }
+
+        String nextCursor = null;
+        if (items.size() > size) {
+            items = items.subList(0, size);
+            ItemEntity last = items.get(size - 1);
+            nextCursor = KeysetCursor.encode(last.getName(), last.getId());
+        }
+
+        return ResponseEntity.ok(new CursorPage<>(items, nextCursor));
+    }
+
     public ResponseEntity<?> getAllUserItems(HttpServletRequest request, int page, int size) {
         UUID requesterId = userService.getUserIdFromRequest(request);
         Pageable pageable = PageRequest.of(page, size);
@@ -95,9 +148,9 @@ public class ItemService {
     }
 
     public ResponseEntity<?> getItemByItemNumber(String itemNumber) {
-        Optional<ItemEntity> itemOpt = itemRepository.findByNumber(itemNumber);
-        if (itemOpt.isPresent()) {
-            return ResponseEntity.ok(itemOpt.get());
+        ItemDTO item = itemCache.get(itemNumber);
+        if (item != null) {
+            return ResponseEntity.ok(item);
         } else {
             return ResponseEntity.status(404).body("Item not found with number: " + itemNumber);
         }
@@ -114,6 +167,42 @@ public class ItemService {
         return ResponseEntity.ok(itemsPage);
     }
 
+    public ResponseEntity<?> searchItems(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            return ResponseEntity.status(400).body("Search query must not be empty");
+        }
+
+        Pageable pageable = PageRequest.of(page, size);
+        List<ItemEntity> items = itemRepository.searchItems(query.trim(), size + 1, pageable.getOffset());
+
+        boolean hasNext = items.size() > size;
+        if (hasNext) {
+            items = items.subList(0, size);
+        }
+
+        if (items.isEmpty()) {
+            return ResponseEntity.status(404).body("No items found for: " + query);
+        }
+
+        return ResponseEntity.ok(new SliceImpl<>(items, pageable, hasNext));
+    }
+
+    public ResponseEntity<?> facetedSearch(List<String> categories, List<String> colorGroups, BigDecimal minPrice,
+                                           BigDecimal maxPrice, Boolean inStock, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size, Sort.by("name", "id"));
+        Specification<ItemEntity> specification =
+                ItemSpecifications.withFacets(categories, colorGroups, minPrice, maxPrice, inStock);
+
+        Slice<ItemEntity> items = itemRepository.findSlice(specification, pageable);
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        for (ItemFacetCountEntity facetCount : itemFacetCountRepository.findByItemCountGreaterThanOrderByFacetAscValueAsc(0L)) {
+            facets.computeIfAbsent(facetCount.getFacet(), facet -> new LinkedHashMap<>())
+                    .put(facetCount.getValue(), facetCount.getItemCount());
+        }
+
+        return ResponseEntity.ok(new ItemFacetSearchDTO(items, facets));
+    }
+
     public ResponseEntity<?> getItemsByCategory(String category, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         Page<ItemEntity> itemsPage = itemRepository.findByCategoryContainingIgnoreCase(category, pageable);
@@ -129,14 +218,13 @@ public class ItemService {
                                      List<String> colorGroups, BigDecimal price, Integer amount,
                                      MultipartFile image, MultipartFile object) {
 
-        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
@@ -192,21 +280,23 @@ public class ItemService {
         }
 
         ItemEntity savedItem = itemRepository.save(newItem);
+        if (object != null) {
+            modelConversionService.submit(newItemNumber, savedItem.getObject_src(), object);
+        }
 
         return ResponseEntity.ok(savedItem);
     }
 
     public ResponseEntity<?> deleteItem(HttpServletRequest request, String itemNumber, String password) {
 
-        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        AuthContext authContext = authContextResolver.resolve(request);
         String route = "/item/" + itemNumber;
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
@@ -220,7 +310,7 @@ public class ItemService {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Item not found with number: " + itemNumber);
         }
 
-        UUID userId = jwtUtil.getUserIdFromToken(token);
+        UUID userId = authContext.getUserId();
         Optional<UserEntity> optionalUser = userRepository.findById(userId);
 
         if (optionalUser.isEmpty()) {
@@ -237,6 +327,7 @@ public class ItemService {
         String category = itemToDelete.getCategory();
         folderService.deleteItemFolder(request, itemNumber);
         itemRepository.delete(itemToDelete);
+        itemCache.evict(itemNumber);
         permissionService.deletePermission(request, route, password);
 
         boolean hasOtherItems = itemRepository.existsByCategory(category);
@@ -252,15 +343,14 @@ public class ItemService {
                                       BigDecimal price, Integer amount, MultipartFile image,
                                       MultipartFile object) {
 
-        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        AuthContext authContext = authContextResolver.resolve(request);
         String route = "/item/" + itemNumber;
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
@@ -317,9 +407,12 @@ public class ItemService {
                 itemToEdit.setImg_src(imageUrl);
             }
         }
+        String oldModelSrc = null;
         if (object != null) {
             String objectFileName = objectService.generateRandomFileName(object);
             String objectUrl = baseStorageUrl + itemNumber + "/" + objectFileName;
+            oldModelSrc = itemToEdit.getModel_src();
+            itemToEdit.setModel_src(null);
 
             if(itemToEdit.getObject_src().equals(baseStorageUrl + "template/OBJ1.obj")){
                 objectService.uploadObjectToFolder(request, object, itemNumber, objectFileName);
@@ -332,6 +425,19 @@ public class ItemService {
         }
 
         ItemEntity savedItem = itemRepository.save(itemToEdit);
+        if (amount != null) {
+            if (hotInventoryService.isHot(itemNumber)) {
+                hotInventoryService.overwrite(itemNumber, amount);
+            } else {
+                itemRepository.setAmount(itemNumber, amount);
+            }
+        }
+        itemCache.evict(itemNumber);
+
+        if (object != null) {
+            deleteModel(itemNumber, oldModelSrc);
+            modelConversionService.submit(itemNumber, savedItem.getObject_src(), object);
+        }
 
         if (!oldCategory.equals(itemToEdit.getCategory())) {
             boolean hasOtherItems = itemRepository.existsByCategory(oldCategory);
@@ -346,15 +452,14 @@ public class ItemService {
 
     public ResponseEntity<?> deleteImageFromItem(HttpServletRequest request, String itemNumber) {
 
-        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        AuthContext authContext = authContextResolver.resolve(request);
         String route = "/item/" + itemNumber;
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
@@ -378,21 +483,21 @@ public class ItemService {
 
         item.setImg_src(baseStorageUrl + "template/IMG1.png");
         itemRepository.save(item);
+        itemCache.evict(itemNumber);
 
         return ResponseEntity.ok("Image for item " + itemNumber + " has been deleted successfully");
     }
 
     public ResponseEntity<?> deleteObjectFromItem(HttpServletRequest request, String itemNumber) {
 
-        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        AuthContext authContext = authContextResolver.resolve(request);
         String route = "/item/" + itemNumber;
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
@@ -410,13 +515,27 @@ public class ItemService {
         String objectUrl = item.getObject_src();
         String objectToDelete = objectService.getFileNameFromLink(objectUrl);
         objectService.deleteObject(request, itemNumber, objectToDelete);
+        deleteModel(itemNumber, item.getModel_src());
 
         item.setObject_src(baseStorageUrl + "template/OBJ1.obj");
+        item.setModel_src(null);
         itemRepository.save(item);
+        itemCache.evict(itemNumber);
 
         return ResponseEntity.ok("Object for item " + itemNumber + " has been deleted successfully");
     }
 
+    private void deleteModel(String itemNumber, String modelSrc) {
+        if (modelSrc == null) {
+            return;
+        }
+        try {
+            objectService.deleteDerivedObject(itemNumber, modelSrc.substring(modelSrc.lastIndexOf('/') + 1));
+        } catch (IOException e) {
+            // an orphaned model file is removed together with the item folder
+        }
+    }
+
     public ResponseEntity<?> getAllCategories() {
         List<CategoryEntity> categories = categoryRepository.findAll();
 
@@ -429,14 +548,13 @@ public class ItemService {
 
     public ResponseEntity<?> addCategory(HttpServletRequest request, String name) {
 
-        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
@@ -458,14 +576,13 @@ public class ItemService {
 
     public ResponseEntity<?> deleteCategory(HttpServletRequest request, String name) {
 
-        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
@@ -487,22 +604,31 @@ public class ItemService {
 
     public ResponseEntity<?> changeItemAmount(HttpServletRequest request, String itemNumber, Integer amount) {
 
-        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
-        Optional<ItemEntity> itemOpt = itemRepository.findByNumber(itemNumber);
-        if (itemOpt.isPresent()) {
-            ItemEntity item = itemOpt.get();
-            item.setAmount(item.getAmount() + amount);
-            itemRepository.save(item);
+        if (amount == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Missing required fields");
+        }
+
+        if (hotInventoryService.isHot(itemNumber)) {
+            if (!hotInventoryService.adjust(itemNumber, amount)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: Insufficient stock for item: " + itemNumber);
+            }
+            return ResponseEntity.ok("Item with number " + itemNumber + " has the amount: " + hotInventoryService.getAvailable(itemNumber));
+        }
+
+        int updated = itemRepository.addAmount(itemNumber, amount);
+        itemCache.evict(itemNumber);
+        ItemDTO item = updated > 0 ? itemCache.get(itemNumber) : null;
+        if (item != null) {
             return ResponseEntity.ok("Item with number " + itemNumber + " has the amount: " + item.getAmount());
         } else {
             return ResponseEntity.status(404).body("Item not found with number: " + itemNumber);
@@ -515,22 +641,15 @@ public class ItemService {
     }
 
     public ItemDTO getItemByNumber(String itemNumber) {
-        Optional<ItemEntity> itemOpt = itemRepository.findByNumber(itemNumber);
-        return itemOpt.map(this::convertToDTO).orElse(null);
+        return itemCache.get(itemNumber);
+    }
+
+    public int getStockAmount(ItemDTO item) {
+        Integer hotAmount = hotInventoryService.getAvailable(item.getNumber());
+        return hotAmount != null ? hotAmount : item.getAmount();
     }
 
-    private ItemDTO convertToDTO(ItemEntity itemEntity) {
-        ItemDTO dto = new ItemDTO();
-        dto.setId(itemEntity.getId());
-        dto.setName(itemEntity.getName());
-        dto.setNumber(itemEntity.getNumber());
-        dto.setDescription(itemEntity.getDescription());
-        dto.setCategory(itemEntity.getCategory());
-        dto.setColor_groups(itemEntity.getColor_groups());
-        dto.setPrice(itemEntity.getPrice());
-        dto.setAmount(itemEntity.getAmount());
-        dto.setImg_src(itemEntity.getImg_src());
-        dto.setObject_src(itemEntity.getObject_src());
-        return dto;
+    public Map<String, ItemDTO> getItemsByNumbers(Collection<String> itemNumbers) {
+        return itemCache.getAll(itemNumbers);
     }
 }
@@ -0,0 +1,129 @@
+package com.gemsflare.gemsflare.item.service;
+
+import com.gemsflare.gemsflare.item.repository.ItemRepository;
+import com.gemsflare.gemsflare.storage.service.StorageObjectService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ModelConversionService {
+
+    public static final String MODEL_EXTENSION = ".glb";
+    public static final String MODEL_CONTENT_TYPE = "model/gltf-binary";
+
+    private static final int QUEUE_CAPACITY = 16;
+
+    private final StorageObjectService objectService;
+    private final ItemRepository itemRepository;
+    private final ItemCache itemCache;
+    private final String baseStorageUrl;
+    private final long maxSourceBytes;
+    private final Timer conversionTimer;
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            runnable -> {
+                Thread thread = new Thread(runnable, "model-conversion");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+    public ModelConversionService(StorageObjectService objectService, ItemRepository itemRepository, ItemCache itemCache,
+                                  @Value("${storage.base-url}") String baseStorageUrl,
+                                  @Value("${item.model.max-source-size:64MB}") DataSize maxSourceSize,
+                                  MeterRegistry meterRegistry) {
+        this.objectService = objectService;
+        this.itemRepository = itemRepository;
+        this.itemCache = itemCache;
+        this.baseStorageUrl = baseStorageUrl;
+        this.maxSourceBytes = maxSourceSize.toBytes();
+        this.conversionTimer = Timer.builder("item.model.conversion")
+                .description("OBJ to GLB conversion time")
+                .register(meterRegistry);
+    }
+
+    public boolean isConvertible(MultipartFile object) {
+        String name = object.getOriginalFilename();
+        return name != null && name.toLowerCase().endsWith(".obj");
+    }
+
+    public void submit(String itemNumber, String objectSrc, MultipartFile object) {
+        if (!isConvertible(object) || object.getSize() > maxSourceBytes) {
+            return;
+        }
+
+        Path source;
+        try {
+            source = Files.createTempFile("model-", ".obj");
+            object.transferTo(source);
+        } catch (IOException e) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> convert(itemNumber, objectSrc, source));
+        } catch (RejectedExecutionException e) {
+            deleteQuietly(source);
+        }
+    }
+
+    public String modelFileName(String objectSrc) {
+        String fileName = objectSrc.substring(objectSrc.lastIndexOf('/') + 1);
+        int dot = fileName.lastIndexOf('.');
+        return (dot > 0 ? fileName.substring(0, dot) : fileName) + MODEL_EXTENSION;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void convert(String itemNumber, String objectSrc, Path source) {
+        Path model = null;
+        try {
+            model = Files.createTempFile("model-", MODEL_EXTENSION);
+            Path target = model;
+            conversionTimer.recordCallable(() -> {
+                ObjToGlbConverter.convert(source, target);
+                return null;
+            });
+
+            String fileName = modelFileName(objectSrc);
+            objectService.storeDerivedObject(itemNumber, fileName, model, MODEL_CONTENT_TYPE);
+
+            String modelUrl = String.format("%s/%s/%s", baseStorageUrl, itemNumber, fileName);
+            if (itemRepository.updateModelSrc(itemNumber, objectSrc, modelUrl) == 0) {
+                objectService.deleteDerivedObject(itemNumber, fileName);
+            }
+            itemCache.evict(itemNumber);
+        } catch (Exception e) {
+            // the viewer falls back to object_src when model_src is not set
+        } finally {
+            deleteQuietly(source);
+            if (model != null) {
+                deleteQuietly(model);
+            }
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+        }
+    }
+}
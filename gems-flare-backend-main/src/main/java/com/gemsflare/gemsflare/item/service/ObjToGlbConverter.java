@@ -0,0 +1,445 @@
+package com.gemsflare.gemsflare.item.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+final class ObjToGlbConverter {
+
+    private static final int GLB_MAGIC = 0x46546C67;
+    private static final int GLB_VERSION = 2;
+    private static final int CHUNK_JSON = 0x4E4F534A;
+    private static final int CHUNK_BIN = 0x004E4942;
+
+    private static final int BYTE = 5120;
+    private static final int UNSIGNED_SHORT = 5123;
+    private static final int UNSIGNED_INT = 5125;
+    private static final int FLOAT = 5126;
+    private static final int ARRAY_BUFFER = 34962;
+    private static final int ELEMENT_ARRAY_BUFFER = 34963;
+    private static final int TRIANGLES = 4;
+
+    private static final int POSITION_STEPS = 65535;
+    private static final int MAX_VERTICES = 2_000_000;
+    private static final int MAX_INDICES = 12_000_000;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ObjToGlbConverter() {
+    }
+
+    static void convert(Path source, Path target) throws IOException {
+        Mesh mesh = parse(source);
+        if (mesh.indices.size == 0) {
+            throw new IllegalArgumentException("OBJ file contains no faces");
+        }
+        if (!mesh.missingNormals.isEmpty()) {
+            computeNormals(mesh);
+        }
+        write(mesh, target);
+    }
+
+    private static Mesh parse(Path source) throws IOException {
+        Floats positions = new Floats();
+        Floats texcoords = new Floats();
+        Floats normals = new Floats();
+        Mesh mesh = new Mesh();
+        Map<VertexKey, Integer> vertices = new HashMap<>();
+        int[] face = new int[8];
+
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(source), StandardCharsets.ISO_8859_1), READ_BUFFER_SIZE)) {
+            LineScanner scanner = new LineScanner();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                scanner.reset(line);
+                String keyword = scanner.next();
+                if (keyword == null) {
+                    continue;
+                }
+                switch (keyword) {
+                    case "v" -> {
+                        positions.add(scanner.nextFloat(0));
+                        positions.add(scanner.nextFloat(0));
+                        positions.add(scanner.nextFloat(0));
+                    }
+                    case "vt" -> {
+                        texcoords.add(scanner.nextFloat(0));
+                        texcoords.add(scanner.nextFloat(0));
+                    }
+                    case "vn" -> {
+                        normals.add(scanner.nextFloat(0));
+                        normals.add(scanner.nextFloat(0));
+                        normals.add(scanner.nextFloat(0));
+                    }
+                    case "f" -> {
+                        int count = 0;
+                        String token;
+                        while ((token = scanner.next()) != null) {
+                            if (count == face.length) {
+                                face = Arrays.copyOf(face, count * 2);
+                            }
+                            face[count++] = vertex(token, positions, texcoords, normals, mesh, vertices);
+                        }
+                        if (mesh.indices.size + 3L * Math.max(0, count - 2) > MAX_INDICES) {
+                            throw new IllegalArgumentException("OBJ file exceeds " + MAX_INDICES + " indices");
+                        }
+                        for (int i = 1; i + 1 < count; i++) {
+                            mesh.indices.add(face[0]);
+                            mesh.indices.add(face[i]);
+                            mesh.indices.add(face[i + 1]);
+                        }
+                    }
+                    default -> {
+                        // groups, materials and smoothing groups are merged into a single primitive
+                    }
+                }
+            }
+        }
+        return mesh;
+    }
+
+    private static int vertex(String token, Floats positions, Floats texcoords, Floats normals,
+                              Mesh mesh, Map<VertexKey, Integer> vertices) {
+        String[] parts = token.split("/", -1);
+        int position = resolve(parts[0], positions.size / 3, token);
+        int texcoord = parts.length > 1 && !parts[1].isEmpty() ? resolve(parts[1], texcoords.size / 2, token) : -1;
+        int normal = parts.length > 2 && !parts[2].isEmpty() ? resolve(parts[2], normals.size / 3, token) : -1;
+
+        return vertices.computeIfAbsent(new VertexKey(position, texcoord, normal), key -> {
+            if (mesh.vertexCount == MAX_VERTICES) {
+                throw new IllegalArgumentException("OBJ file exceeds " + MAX_VERTICES + " vertices");
+            }
+            mesh.positions.add(positions.get(position * 3));
+            mesh.positions.add(positions.get(position * 3 + 1));
+            mesh.positions.add(positions.get(position * 3 + 2));
+
+            if (texcoord >= 0) {
+                mesh.hasTexcoords = true;
+                mesh.texcoords.add(texcoords.get(texcoord * 2));
+                mesh.texcoords.add(1 - texcoords.get(texcoord * 2 + 1));
+            } else {
+                mesh.texcoords.add(0);
+                mesh.texcoords.add(0);
+            }
+
+            if (normal >= 0) {
+                mesh.normals.add(normals.get(normal * 3));
+                mesh.normals.add(normals.get(normal * 3 + 1));
+                mesh.normals.add(normals.get(normal * 3 + 2));
+            } else {
+                mesh.missingNormals.set(mesh.vertexCount);
+                mesh.normals.add(0);
+                mesh.normals.add(0);
+                mesh.normals.add(0);
+            }
+            return mesh.vertexCount++;
+        });
+    }
+
+    private static int resolve(String value, int count, String token) {
+        int index = Integer.parseInt(value);
+        int resolved = index > 0 ? index - 1 : count + index;
+        if (index == 0 || resolved < 0 || resolved >= count) {
+            throw new IllegalArgumentException("Invalid OBJ vertex reference: " + token);
+        }
+        return resolved;
+    }
+
+    private static void computeNormals(Mesh mesh) {
+        float[] p = mesh.positions.values;
+        float[] n = new float[mesh.vertexCount * 3];
+        int[] indices = mesh.indices.values;
+
+        for (int i = 0; i < mesh.indices.size; i += 3) {
+            int a = indices[i] * 3;
+            int b = indices[i + 1] * 3;
+            int c = indices[i + 2] * 3;
+            float ux = p[b] - p[a], uy = p[b + 1] - p[a + 1], uz = p[b + 2] - p[a + 2];
+            float vx = p[c] - p[a], vy = p[c + 1] - p[a + 1], vz = p[c + 2] - p[a + 2];
+            float nx = uy * vz - uz * vy;
+            float ny = uz * vx - ux * vz;
+            float nz = ux * vy - uy * vx;
+            for (int vertex : new int[]{a, b, c}) {
+                n[vertex] += nx;
+                n[vertex + 1] += ny;
+                n[vertex + 2] += nz;
+            }
+        }
+
+        BitSet missing = mesh.missingNormals;
+        for (int v = missing.nextSetBit(0); v >= 0; v = missing.nextSetBit(v + 1)) {
+            mesh.normals.values[v * 3] = n[v * 3];
+            mesh.normals.values[v * 3 + 1] = n[v * 3 + 1];
+            mesh.normals.values[v * 3 + 2] = n[v * 3 + 2];
+        }
+    }
+
+    private static void write(Mesh mesh, Path target) throws IOException {
+        int vertexCount = mesh.vertexCount;
+        int indexCount = mesh.indices.size;
+        boolean shortIndices = vertexCount < 65535;
+        boolean normalizedTexcoords = mesh.hasTexcoords && withinUnitRange(mesh.texcoords);
+
+        int positionStride = 8;
+        int normalStride = 4;
+        int texcoordStride = normalizedTexcoords ? 4 : 8;
+        long positionLength = (long) vertexCount * positionStride;
+        long normalLength = (long) vertexCount * normalStride;
+        long texcoordLength = mesh.hasTexcoords ? (long) vertexCount * texcoordStride : 0;
+        long indexLength = (long) indexCount * (shortIndices ? 2 : 4);
+        int binLength = Math.toIntExact(align4(positionLength + normalLength + texcoordLength + indexLength));
+
+        ByteBuffer bin = ByteBuffer.allocate(binLength).order(ByteOrder.LITTLE_ENDIAN);
+        List<Map<String, Object>> bufferViews = new ArrayList<>();
+        List<Map<String, Object>> accessors = new ArrayList<>();
+        Map<String, Object> attributes = new LinkedHashMap<>();
+
+        float[] min = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE};
+        float[] max = {-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+        float[] p = mesh.positions.values;
+        for (int i = 0; i < vertexCount * 3; i++) {
+            min[i % 3] = Math.min(min[i % 3], p[i]);
+            max[i % 3] = Math.max(max[i % 3], p[i]);
+        }
+        float extent = Math.max(max[0] - min[0], Math.max(max[1] - min[1], max[2] - min[2]));
+        float scale = extent > 0 ? extent / POSITION_STEPS : 1;
+
+        int[] quantizedMin = {Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE};
+        int[] quantizedMax = {0, 0, 0};
+        bufferViews.add(bufferView(bin.position(), positionLength, positionStride, ARRAY_BUFFER));
+        for (int v = 0; v < vertexCount; v++) {
+            for (int axis = 0; axis < 3; axis++) {
+                int q = clamp(Math.round((p[v * 3 + axis] - min[axis]) / scale), 0, POSITION_STEPS);
+                quantizedMin[axis] = Math.min(quantizedMin[axis], q);
+                quantizedMax[axis] = Math.max(quantizedMax[axis], q);
+                bin.putShort((short) q);
+            }
+            bin.putShort((short) 0);
+        }
+        Map<String, Object> positionAccessor = accessor(0, UNSIGNED_SHORT, false, vertexCount, "VEC3");
+        positionAccessor.put("min", quantizedMin);
+        positionAccessor.put("max", quantizedMax);
+        attributes.put("POSITION", accessors.size());
+        accessors.add(positionAccessor);
+
+        float[] n = mesh.normals.values;
+        bufferViews.add(bufferView(bin.position(), normalLength, normalStride, ARRAY_BUFFER));
+        for (int v = 0; v < vertexCount; v++) {
+            float x = n[v * 3], y = n[v * 3 + 1], z = n[v * 3 + 2];
+            float length = (float) Math.sqrt(x * x + y * y + z * z);
+            if (length == 0) {
+                x = 0;
+                y = 0;
+                z = 1;
+                length = 1;
+            }
+            bin.put(quantizeNormal(x / length));
+            bin.put(quantizeNormal(y / length));
+            bin.put(quantizeNormal(z / length));
+            bin.put((byte) 0);
+        }
+        attributes.put("NORMAL", accessors.size());
+        accessors.add(accessor(1, BYTE, true, vertexCount, "VEC3"));
+
+        if (mesh.hasTexcoords) {
+            float[] t = mesh.texcoords.values;
+            bufferViews.add(bufferView(bin.position(), texcoordLength, texcoordStride, ARRAY_BUFFER));
+            for (int i = 0; i < vertexCount * 2; i++) {
+                if (normalizedTexcoords) {
+                    bin.putShort((short) clamp(Math.round(t[i] * 65535), 0, 65535));
+                } else {
+                    bin.putFloat(t[i]);
+                }
+            }
+            attributes.put("TEXCOORD_0", accessors.size());
+            accessors.add(accessor(bufferViews.size() - 1, normalizedTexcoords ? UNSIGNED_SHORT : FLOAT,
+                    normalizedTexcoords, vertexCount, "VEC2"));
+        }
+
+        bufferViews.add(bufferView(bin.position(), indexLength, 0, ELEMENT_ARRAY_BUFFER));
+        int[] indices = mesh.indices.values;
+        for (int i = 0; i < indexCount; i++) {
+            if (shortIndices) {
+                bin.putShort((short) indices[i]);
+            } else {
+                bin.putInt(indices[i]);
+            }
+        }
+        int indicesAccessor = accessors.size();
+        accessors.add(accessor(bufferViews.size() - 1, shortIndices ? UNSIGNED_SHORT : UNSIGNED_INT, false, indexCount, "SCALAR"));
+
+        Map<String, Object> primitive = new LinkedHashMap<>();
+        primitive.put("attributes", attributes);
+        primitive.put("indices", indicesAccessor);
+        primitive.put("mode", TRIANGLES);
+
+        Map<String, Object> node = new LinkedHashMap<>();
+        node.put("mesh", 0);
+        node.put("translation", min);
+        node.put("scale", new float[]{scale, scale, scale});
+
+        Map<String, Object> gltf = new LinkedHashMap<>();
+        gltf.put("asset", Map.of("version", "2.0", "generator", "gemsflare"));
+        gltf.put("extensionsUsed", List.of("KHR_mesh_quantization"));
+        gltf.put("extensionsRequired", List.of("KHR_mesh_quantization"));
+        gltf.put("scene", 0);
+        gltf.put("scenes", List.of(Map.of("nodes", List.of(0))));
+        gltf.put("nodes", List.of(node));
+        gltf.put("meshes", List.of(Map.of("primitives", List.of(primitive))));
+        gltf.put("buffers", List.of(Map.of("byteLength", binLength)));
+        gltf.put("bufferViews", bufferViews);
+        gltf.put("accessors", accessors);
+
+        byte[] json = MAPPER.writeValueAsBytes(gltf);
+        int jsonLength = Math.toIntExact(align4(json.length));
+        int totalLength = 12 + 8 + jsonLength + 8 + binLength;
+
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(target), READ_BUFFER_SIZE)) {
+            out.write(ByteBuffer.allocate(20).order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(GLB_MAGIC).putInt(GLB_VERSION).putInt(totalLength)
+                    .putInt(jsonLength).putInt(CHUNK_JSON)
+                    .array());
+            out.write(json);
+            for (int i = json.length; i < jsonLength; i++) {
+                out.write(' ');
+            }
+            out.write(ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(binLength).putInt(CHUNK_BIN)
+                    .array());
+            out.write(bin.array());
+        }
+    }
+
+    private static Map<String, Object> bufferView(int offset, long length, int stride, int target) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("buffer", 0);
+        view.put("byteOffset", offset);
+        view.put("byteLength", length);
+        if (stride > 0) {
+            view.put("byteStride", stride);
+        }
+        view.put("target", target);
+        return view;
+    }
+
+    private static Map<String, Object> accessor(int bufferView, int componentType, boolean normalized, int count, String type) {
+        Map<String, Object> accessor = new LinkedHashMap<>();
+        accessor.put("bufferView", bufferView);
+        accessor.put("componentType", componentType);
+        if (normalized) {
+            accessor.put("normalized", true);
+        }
+        accessor.put("count", count);
+        accessor.put("type", type);
+        return accessor;
+    }
+
+    private static boolean withinUnitRange(Floats values) {
+        for (int i = 0; i < values.size; i++) {
+            if (values.values[i] < 0 || values.values[i] > 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte quantizeNormal(float value) {
+        return (byte) clamp(Math.round(value * 127), -127, 127);
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static long align4(long value) {
+        return (value + 3) & ~3L;
+    }
+
+    private record VertexKey(int position, int texcoord, int normal) {
+    }
+
+    private static final class Mesh {
+        private final Floats positions = new Floats();
+        private final Floats texcoords = new Floats();
+        private final Floats normals = new Floats();
+        private final Ints indices = new Ints();
+        private int vertexCount;
+        private boolean hasTexcoords;
+        private final BitSet missingNormals = new BitSet();
+    }
+
+    private static final class LineScanner {
+        private String line;
+        private int position;
+
+        void reset(String line) {
+            this.line = line;
+            this.position = 0;
+        }
+
+        String next() {
+            int length = line.length();
+            while (position < length && Character.isWhitespace(line.charAt(position))) {
+                position++;
+            }
+            if (position >= length || line.charAt(position) == '#') {
+                return null;
+            }
+            int start = position;
+            while (position < length && !Character.isWhitespace(line.charAt(position))) {
+                position++;
+            }
+            return line.substring(start, position);
+        }
+
+        float nextFloat(float defaultValue) {
+            String token = next();
+            return token == null ? defaultValue : Float.parseFloat(token);
+        }
+    }
+
+    private static final class Floats {
+        private float[] values = new float[1024];
+        private int size;
+
+        void add(float value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        float get(int index) {
+            return values[index];
+        }
+    }
+
+    private static final class Ints {
+        private int[] values = new int[1024];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.gemsflare.gemsflare.item.service;
+
+import com.gemsflare.gemsflare.checkout.service.CheckoutService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class StockHoldService {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> heldByItem = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Map<String, Map<String, Integer>> quantities = new HashMap<>();
+        Map<String, Long> expiries = new HashMap<>();
+        jdbcTemplate.query("SELECT checkout_number, item_number, quantity, expires_at FROM public.stock_hold WHERE expires_at > ?",
+                (RowCallbackHandler) rs -> {
+                    String checkoutNumber = rs.getString("checkout_number");
+                    quantities.computeIfAbsent(checkoutNumber, number -> new HashMap<>())
+                            .put(rs.getString("item_number"), rs.getInt("quantity"));
+                    expiries.put(checkoutNumber, rs.getTimestamp("expires_at").getTime());
+                }, new Timestamp(System.currentTimeMillis()));
+
+        quantities.forEach((checkoutNumber, lines) -> {
+            if (holds.putIfAbsent(checkoutNumber, new Hold(Map.copyOf(lines), expiries.get(checkoutNumber))) == null) {
+                lines.forEach((itemNumber, quantity) -> held(itemNumber).addAndGet(quantity));
+            }
+        });
+    }
+
+    public boolean place(String checkoutNumber, Map<String, Integer> quantities, Map<String, Integer> stock) {
+        Map<String, Integer> taken = new HashMap<>();
+        for (Map.Entry<String, Integer> line : quantities.entrySet()) {
+            Integer amount = stock.get(line.getKey());
+            if (amount == null || !tryHold(line.getKey(), line.getValue(), amount)) {
+                taken.forEach((itemNumber, quantity) -> held(itemNumber).addAndGet(-quantity));
+                return false;
+            }
+            taken.put(line.getKey(), line.getValue());
+        }
+
+        long expiresAt = System.currentTimeMillis() + CheckoutService.CHECKOUT_TTL.toMillis();
+        holds.put(checkoutNumber, new Hold(Map.copyOf(quantities), expiresAt));
+
+        List<Object[]> rows = new ArrayList<>();
+        quantities.forEach((itemNumber, quantity) ->
+                rows.add(new Object[]{checkoutNumber, itemNumber, quantity, new Timestamp(expiresAt)}));
+        try {
+            jdbcTemplate.batchUpdate("INSERT INTO public.stock_hold (checkout_number, item_number, quantity, expires_at) " +
+                    "VALUES (?, ?, ?, ?)", rows);
+        } catch (RuntimeException e) {
+            releaseHeld(checkoutNumber);
+            throw e;
+        }
+        return true;
+    }
+
+    public void release(String checkoutNumber) {
+        if (checkoutNumber == null) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM public.stock_hold WHERE checkout_number = ?", checkoutNumber);
+        afterCommit(() -> releaseHeld(checkoutNumber));
+    }
+
+    public int getHeld(String itemNumber) {
+        AtomicInteger held = heldByItem.get(itemNumber);
+        return held == null ? 0 : held.get();
+    }
+
+    public int getHeldBy(String checkoutNumber, String itemNumber) {
+        Hold hold = checkoutNumber == null ? null : holds.get(checkoutNumber);
+        return hold == null ? 0 : hold.quantities().getOrDefault(itemNumber, 0);
+    }
+
+    public int getHeldByOthers(String checkoutNumber, String itemNumber) {
+        return getHeld(itemNumber) - getHeldBy(checkoutNumber, itemNumber);
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        jdbcTemplate.update("DELETE FROM public.stock_hold WHERE expires_at <= ?", new Timestamp(now));
+        holds.forEach((checkoutNumber, hold) -> {
+            if (hold.expiresAt() <= now) {
+                releaseHeld(checkoutNumber);
+            }
+        });
+    }
+
+    private boolean tryHold(String itemNumber, int quantity, int amount) {
+        AtomicInteger held = held(itemNumber);
+        while (true) {
+            int current = held.get();
+            if (amount - current < quantity) {
+                return false;
+            }
+            if (held.compareAndSet(current, current + quantity)) {
+                return true;
+            }
+        }
+    }
+
+    private AtomicInteger held(String itemNumber) {
+        return heldByItem.computeIfAbsent(itemNumber, number -> new AtomicInteger());
+    }
+
+    private void releaseHeld(String checkoutNumber) {
+        Hold hold = holds.remove(checkoutNumber);
+        if (hold != null) {
+            hold.quantities().forEach((itemNumber, quantity) -> held(itemNumber).addAndGet(-quantity));
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Hold(Map<String, Integer> quantities, long expiresAt) {
+    }
+}
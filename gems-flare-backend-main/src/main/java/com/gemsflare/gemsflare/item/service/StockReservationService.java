@@ -0,0 +1,106 @@
+package com.gemsflare.gemsflare.item.service;
+
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class StockReservationService {
+
+    private static final String RESERVE_SQL =
+            "UPDATE public.item SET amount = amount - ? WHERE number = ? AND amount - ? >= ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ItemCache itemCache;
+    @Autowired
+    private HotInventoryService hotInventoryService;
+    @Autowired
+    private StockHoldService stockHoldService;
+
+    @Transactional
+    public void reserve(String checkoutNumber, Map<String, Integer> quantities) {
+        Map<String, Integer> sorted = new TreeMap<>();
+        for (Map.Entry<String, Integer> line : quantities.entrySet()) {
+            if (line.getValue() == null || line.getValue() < 1) {
+                throw new IllegalArgumentException("Invalid amount for item: " + line.getKey());
+            }
+            sorted.merge(line.getKey(), line.getValue(), Integer::sum);
+        }
+        if (sorted.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<String, Integer>> lines = new ArrayList<>();
+        List<Map.Entry<String, Integer>> held = new ArrayList<>();
+        registerCompletion(sorted.keySet(), held);
+
+        Map<String, Integer> heldByOthers = new TreeMap<>();
+        for (String itemNumber : sorted.keySet()) {
+            heldByOthers.put(itemNumber, stockHoldService.getHeldByOthers(checkoutNumber, itemNumber));
+        }
+
+        for (Map.Entry<String, Integer> line : sorted.entrySet()) {
+            if (!hotInventoryService.isHot(line.getKey())) {
+                lines.add(line);
+            } else if (hotInventoryService.getAvailable(line.getKey()) - heldByOthers.get(line.getKey()) >= line.getValue()
+                    && hotInventoryService.tryReserve(line.getKey(), line.getValue())) {
+                held.add(line);
+            } else {
+                throw new IllegalArgumentException("Insufficient stock for item: " + line.getKey());
+            }
+        }
+        if (lines.isEmpty()) {
+            return;
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(RESERVE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Map.Entry<String, Integer> line = lines.get(i);
+                ps.setInt(1, line.getValue());
+                ps.setString(2, line.getKey());
+                ps.setInt(3, heldByOthers.get(line.getKey()));
+                ps.setInt(4, line.getValue());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return lines.size();
+            }
+        });
+
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                throw new IllegalArgumentException("Insufficient stock for item: " + lines.get(i).getKey());
+            }
+        }
+    }
+
+    private void registerCompletion(Iterable<String> itemNumbers, List<Map.Entry<String, Integer>> held) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // hot decrements reach the WAL only once the order exists, so recovery never replays a rolled-back one
+                if (status == STATUS_COMMITTED) {
+                    held.forEach(line -> hotInventoryService.commitReservation(line.getKey(), line.getValue()));
+                } else {
+                    held.forEach(line -> hotInventoryService.releaseReservation(line.getKey(), line.getValue()));
+                }
+                itemNumbers.forEach(itemCache::evict);
+            }
+        });
+    }
+}
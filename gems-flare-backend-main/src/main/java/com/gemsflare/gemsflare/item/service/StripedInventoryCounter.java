@@ -0,0 +1,73 @@
+package com.gemsflare.gemsflare.item.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+class StripedInventoryCounter {
+
+    private final AtomicIntegerArray stripes;
+
+    StripedInventoryCounter(int stripeCount, int initial) {
+        stripes = new AtomicIntegerArray(stripeCount);
+        if (initial <= 0) {
+            stripes.set(0, initial);
+            return;
+        }
+        for (int i = 0; i < stripeCount; i++) {
+            stripes.set(i, initial / stripeCount + (i < initial % stripeCount ? 1 : 0));
+        }
+    }
+
+    boolean tryTake(int amount) {
+        int count = stripes.length();
+        int start = ThreadLocalRandom.current().nextInt(count);
+        for (int k = 0; k < count; k++) {
+            int i = (start + k) % count;
+            int current;
+            while ((current = stripes.get(i)) >= amount) {
+                if (stripes.compareAndSet(i, current, current - amount)) {
+                    return true;
+                }
+            }
+        }
+        return gather(amount);
+    }
+
+    void add(int amount) {
+        stripes.addAndGet(ThreadLocalRandom.current().nextInt(stripes.length()), amount);
+    }
+
+    int sum() {
+        int sum = 0;
+        for (int i = 0; i < stripes.length(); i++) {
+            sum += stripes.get(i);
+        }
+        return sum;
+    }
+
+    private synchronized boolean gather(int amount) {
+        int[] takenFrom = new int[stripes.length()];
+        int taken = 0;
+        for (int i = 0; i < stripes.length() && taken < amount; i++) {
+            int current;
+            while ((current = stripes.get(i)) > 0) {
+                int part = Math.min(current, amount - taken);
+                if (stripes.compareAndSet(i, current, current - part)) {
+                    takenFrom[i] = part;
+                    taken += part;
+                    break;
+                }
+            }
+        }
+
+        if (taken < amount) {
+            for (int i = 0; i < takenFrom.length; i++) {
+                if (takenFrom[i] > 0) {
+                    stripes.addAndGet(i, takenFrom[i]);
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+}
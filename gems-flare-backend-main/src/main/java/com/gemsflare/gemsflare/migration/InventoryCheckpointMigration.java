@@ -0,0 +1,22 @@
+package com.gemsflare.gemsflare.migration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class InventoryCheckpointMigration implements ApplicationRunner {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS public.inventory_checkpoint (" +
+                "name character varying(64) NOT NULL PRIMARY KEY, " +
+                "wal_seq bigint NOT NULL, " +
+                "updated_at timestamp without time zone NOT NULL DEFAULT now())");
+    }
+}
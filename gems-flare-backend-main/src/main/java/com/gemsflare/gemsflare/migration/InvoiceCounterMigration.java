@@ -0,0 +1,24 @@
+package com.gemsflare.gemsflare.migration;
+
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class InvoiceCounterMigration implements ApplicationRunner {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        jdbcTemplate.execute("UPDATE public.invoice_counter SET counter = 0 WHERE counter IS NULL");
+        jdbcTemplate.execute("DELETE FROM public.invoice_counter a USING public.invoice_counter b " +
+                "WHERE a.date = b.date AND (a.counter < b.counter OR (a.counter = b.counter AND a.id < b.id))");
+        jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS uk_invoice_counter_date ON public.invoice_counter (date)");
+    }
+}
@@ -0,0 +1,28 @@
+package com.gemsflare.gemsflare.migration;
+
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class InvoicePdfMigration implements ApplicationRunner {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        // uncompressed out-of-line storage lets substring() read a chunk without detoasting the whole PDF
+        List<String> storage = jdbcTemplate.queryForList("SELECT CAST(a.attstorage AS TEXT) FROM pg_attribute a " +
+                "WHERE a.attrelid = to_regclass('public.invoice_pdf') AND a.attname = 'content'", String.class);
+        if (!storage.isEmpty() && !storage.get(0).equals("e")) {
+            jdbcTemplate.execute("ALTER TABLE public.invoice_pdf ALTER COLUMN content SET STORAGE EXTERNAL");
+        }
+    }
+}
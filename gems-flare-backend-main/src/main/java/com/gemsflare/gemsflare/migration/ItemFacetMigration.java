@@ -0,0 +1,130 @@
+package com.gemsflare.gemsflare.migration;
+
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+public class ItemFacetMigration implements ApplicationRunner {
+
+    private static final String SCHEMA_NAME = "item_facet";
+    private static final int SCHEMA_VERSION = 2;
+
+    private static final String PRICE_RANGE_FUNCTION =
+            "CREATE OR REPLACE FUNCTION public.item_price_range(price NUMERIC) RETURNS VARCHAR AS $$ " +
+            "SELECT CASE WHEN price IS NULL THEN NULL " +
+            "WHEN price < 50 THEN '0-50' " +
+            "WHEN price < 100 THEN '50-100' " +
+            "WHEN price < 250 THEN '100-250' " +
+            "WHEN price < 500 THEN '250-500' " +
+            "ELSE '500+' END " +
+            "$$ LANGUAGE sql IMMUTABLE";
+
+    private static final String ITEM_FACET_TABLE =
+            "CREATE TABLE IF NOT EXISTS public.item_facet (" +
+            "id UUID PRIMARY KEY DEFAULT uuid_generate_v4(), " +
+            "item_id UUID NOT NULL, " +
+            "facet VARCHAR(255) NOT NULL, " +
+            "facet_value VARCHAR(255) NOT NULL, " +
+            "CONSTRAINT uk_item_facet_facet_value_item UNIQUE (facet, facet_value, item_id))";
+
+    private static final String ITEM_FACETS_FUNCTION =
+            "CREATE OR REPLACE FUNCTION public.item_facets(item_row public.item) RETURNS TABLE (facet TEXT, facet_value TEXT) AS $$ " +
+            "SELECT f.facet, f.facet_value FROM (" +
+            "SELECT 'category' AS facet, CAST(item_row.category AS TEXT) AS facet_value " +
+            "UNION SELECT 'color_group', c.value FROM json_array_elements_text(CAST(item_row.color_groups AS json)) AS c(value) " +
+            "UNION SELECT 'price_range', public.item_price_range(item_row.price) " +
+            "UNION SELECT 'in_stock', CASE WHEN item_row.amount > 0 THEN 'true' ELSE 'false' END" +
+            ") f WHERE f.facet_value IS NOT NULL " +
+            "$$ LANGUAGE sql STABLE";
+
+    private static final String FACET_DELTA_FUNCTION =
+            "CREATE OR REPLACE FUNCTION public.item_facet_delta(item_row public.item, delta INTEGER) RETURNS void AS $$ " +
+            "BEGIN " +
+            "INSERT INTO public.item_facet_count (id, facet, facet_value, item_count) " +
+            "SELECT uuid_generate_v4(), f.facet, f.facet_value, delta FROM public.item_facets(item_row) f " +
+            "ON CONFLICT (facet, facet_value) DO UPDATE SET item_count = public.item_facet_count.item_count + EXCLUDED.item_count; " +
+            "IF delta < 0 THEN " +
+            "DELETE FROM public.item_facet WHERE item_id = item_row.id; " +
+            "ELSE " +
+            "INSERT INTO public.item_facet (id, item_id, facet, facet_value) " +
+            "SELECT uuid_generate_v4(), item_row.id, f.facet, f.facet_value FROM public.item_facets(item_row) f " +
+            "ON CONFLICT (facet, facet_value, item_id) DO NOTHING; " +
+            "END IF; " +
+            "END; " +
+            "$$ LANGUAGE plpgsql";
+
+    private static final String FACET_TRIGGER_FUNCTION =
+            "CREATE OR REPLACE FUNCTION public.item_facet_trigger() RETURNS trigger AS $$ " +
+            "BEGIN " +
+            "IF TG_OP = 'UPDATE' " +
+            "AND OLD.category IS NOT DISTINCT FROM NEW.category " +
+            "AND OLD.color_groups IS NOT DISTINCT FROM NEW.color_groups " +
+            "AND public.item_price_range(OLD.price) IS NOT DISTINCT FROM public.item_price_range(NEW.price) " +
+            "AND (OLD.amount > 0) IS NOT DISTINCT FROM (NEW.amount > 0) THEN " +
+            "RETURN NULL; " +
+            "END IF; " +
+            "IF TG_OP IN ('UPDATE', 'DELETE') THEN PERFORM public.item_facet_delta(OLD, -1); END IF; " +
+            "IF TG_OP IN ('INSERT', 'UPDATE') THEN PERFORM public.item_facet_delta(NEW, 1); END IF; " +
+            "RETURN NULL; " +
+            "END; " +
+            "$$ LANGUAGE plpgsql";
+
+    private static final String INITIAL_COUNTS =
+            "INSERT INTO public.item_facet_count (id, facet, facet_value, item_count) " +
+            "SELECT uuid_generate_v4(), f.facet, f.facet_value, count(*) " +
+            "FROM public.item i CROSS JOIN LATERAL public.item_facets(i) f " +
+            "GROUP BY f.facet, f.facet_value";
+
+    private static final String INITIAL_ITEM_FACETS =
+            "INSERT INTO public.item_facet (id, item_id, facet, facet_value) " +
+            "SELECT uuid_generate_v4(), i.id, f.facet, f.facet_value " +
+            "FROM public.item i CROSS JOIN LATERAL public.item_facets(i) f " +
+            "ON CONFLICT (facet, facet_value, item_id) DO NOTHING";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS \"uuid-ossp\"");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS public.schema_version (" +
+                "name VARCHAR(255) PRIMARY KEY, " +
+                "version INTEGER NOT NULL)");
+        jdbcTemplate.execute(ITEM_FACET_TABLE);
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_item_facet_item_id ON public.item_facet (item_id)");
+
+        List<Integer> versions = jdbcTemplate.queryForList(
+                "SELECT version FROM public.schema_version WHERE name = ?", Integer.class, SCHEMA_NAME);
+        boolean current = !versions.isEmpty() && versions.get(0) == SCHEMA_VERSION;
+        if (current && hasRows("public.item_facet_count") && hasRows("public.item_facet")) {
+            return;
+        }
+
+        jdbcTemplate.execute(PRICE_RANGE_FUNCTION);
+        jdbcTemplate.execute(ITEM_FACETS_FUNCTION);
+        jdbcTemplate.execute(FACET_DELTA_FUNCTION);
+        jdbcTemplate.execute(FACET_TRIGGER_FUNCTION);
+        jdbcTemplate.execute("LOCK TABLE public.item IN SHARE ROW EXCLUSIVE MODE");
+        jdbcTemplate.execute("DROP TRIGGER IF EXISTS item_facet_count_trigger ON public.item");
+        jdbcTemplate.execute("CREATE TRIGGER item_facet_count_trigger AFTER INSERT OR UPDATE OR DELETE ON public.item " +
+                "FOR EACH ROW EXECUTE FUNCTION public.item_facet_trigger()");
+
+        jdbcTemplate.update("DELETE FROM public.item_facet_count");
+        jdbcTemplate.update("DELETE FROM public.item_facet");
+        jdbcTemplate.update(INITIAL_COUNTS);
+        jdbcTemplate.update(INITIAL_ITEM_FACETS);
+        jdbcTemplate.update("INSERT INTO public.schema_version (name, version) VALUES (?, ?) " +
+                "ON CONFLICT (name) DO UPDATE SET version = EXCLUDED.version", SCHEMA_NAME, SCHEMA_VERSION);
+    }
+
+    private boolean hasRows(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + table + ")", Boolean.class));
+    }
+}
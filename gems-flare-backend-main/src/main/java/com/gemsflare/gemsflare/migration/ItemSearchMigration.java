@@ -0,0 +1,25 @@
+package com.gemsflare.gemsflare.migration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ItemSearchMigration implements ApplicationRunner {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        jdbcTemplate.execute("ALTER TABLE public.item ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (" +
+                "setweight(to_tsvector('simple', coalesce(name, '')), 'A') || " +
+                "setweight(to_tsvector('simple', coalesce(category, '')), 'B') || " +
+                "setweight(to_tsvector('simple', coalesce(description, '')), 'C')) STORED");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_item_search_vector ON public.item USING GIN (search_vector)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_item_name_trgm ON public.item USING GIN (name gin_trgm_ops)");
+    }
+}
@@ -0,0 +1,26 @@
+package com.gemsflare.gemsflare.migration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PermissionMembershipMigration implements ApplicationRunner {
+
+    private static final String BACKFILL_SQL =
+            "INSERT INTO public.permission_membership (id, route_id, user_id, role) " +
+            "SELECT uuid_generate_v4(), p.id, CAST(m.user_id AS uuid), ? " +
+            "FROM public.permission p CROSS JOIN LATERAL json_array_elements_text(CAST(p.%s AS json)) AS m(user_id) " +
+            "ON CONFLICT (route_id, user_id, role) DO NOTHING";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        jdbcTemplate.update(String.format(BACKFILL_SQL, "admins"), "admin");
+        jdbcTemplate.update(String.format(BACKFILL_SQL, "users"), "user");
+    }
+}
@@ -0,0 +1,25 @@
+package com.gemsflare.gemsflare.migration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class StockHoldMigration implements ApplicationRunner {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS public.stock_hold (" +
+                "checkout_number character varying(255) NOT NULL, " +
+                "item_number character varying(255) NOT NULL, " +
+                "quantity integer NOT NULL, " +
+                "expires_at timestamp without time zone NOT NULL, " +
+                "PRIMARY KEY (checkout_number, item_number))");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_stock_hold_expires_at ON public.stock_hold (expires_at)");
+    }
+}
@@ -29,6 +29,13 @@ public class OrderController {
         return orderService.getAllOrders(request, page, size);
     }
 
+    @GetMapping("/getOrdersByCursor")
+    public ResponseEntity<?> getOrdersByCursor(HttpServletRequest request,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "20") int size) {
+        return orderService.getOrdersByCursor(request, cursor, size);
+    }
+
     @GetMapping("/getOrderByNumber/{orderNumber}")
     public ResponseEntity<?> getOrderByNumber(@PathVariable String orderNumber) {
         return orderService.getOrderByNumber(orderNumber);
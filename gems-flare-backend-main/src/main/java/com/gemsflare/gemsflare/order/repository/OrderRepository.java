@@ -4,8 +4,12 @@ import com.gemsflare.gemsflare.order.jpa.OrderEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,4 +20,11 @@ public interface OrderRepository extends JpaRepository<OrderEntity, UUID> {
     Optional<OrderEntity> findByTransaction(String transaction);
     Page<OrderEntity> findAll(Pageable pageable);
     Page<OrderEntity> findAllByUserid(UUID userid, Pageable pageable);
+
+    @Query(value = "SELECT * FROM public.\"order\" o ORDER BY o.date DESC, o.id DESC LIMIT :limit", nativeQuery = true)
+    List<OrderEntity> findFirstKeysetPage(@Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM public.\"order\" o WHERE o.date <= :date AND (o.date < :date OR o.id < :id) " +
+            "ORDER BY o.date DESC, o.id DESC LIMIT :limit", nativeQuery = true)
+    List<OrderEntity> findKeysetPageBefore(@Param("date") Date date, @Param("id") UUID id, @Param("limit") int limit);
 }
@@ -7,28 +7,36 @@ import com.gemsflare.gemsflare.invoice.model.InvoiceDTO;
 import com.gemsflare.gemsflare.invoice.service.InvoiceService;
 import com.gemsflare.gemsflare.item.model.ItemDTO;
 import com.gemsflare.gemsflare.item.service.ItemService;
+import com.gemsflare.gemsflare.item.service.StockHoldService;
+import com.gemsflare.gemsflare.item.service.StockReservationService;
 import com.gemsflare.gemsflare.order.jpa.OrderEntity;
 import com.gemsflare.gemsflare.order.model.OrderDTO;
 import com.gemsflare.gemsflare.order.repository.OrderRepository;
 import com.gemsflare.gemsflare.payment.service.PaypalRefundService;
 import com.gemsflare.gemsflare.permission.service.PermissionService;
-import com.gemsflare.gemsflare.security.JwtUtil;
+import com.gemsflare.gemsflare.security.AuthContext;
+import com.gemsflare.gemsflare.security.AuthContextResolver;
 import com.gemsflare.gemsflare.user.service.UserService;
+import com.gemsflare.gemsflare.utils.CursorPage;
+import com.gemsflare.gemsflare.utils.KeysetCursor;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -37,6 +45,10 @@ public class OrderService {
     @Autowired
     private ItemService itemService;
     @Autowired
+    private StockReservationService stockReservationService;
+    @Autowired
+    private StockHoldService stockHoldService;
+    @Autowired
     private InvoiceService invoiceService;
     @Autowired
     private BillAddressService billAddressService;
@@ -47,21 +59,20 @@ public class OrderService {
     @Autowired
     private OrderRepository orderRepository;
     @Autowired
-    private JwtUtil jwtUtil;
+    private AuthContextResolver authContextResolver;
     @Autowired
     private PermissionService permissionService;
     @Autowired
     private PaypalRefundService paypalRefundService;
 
     public ResponseEntity<?> getAllOrders(HttpServletRequest request, int page, int size) {
-        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
@@ -78,6 +89,51 @@ public class OrderService {
         return ResponseEntity.ok(orderPage);
     }
 
+    public ResponseEntity<?> getOrdersByCursor(HttpServletRequest request, String cursor, int size) {
+        AuthContext authContext = authContextResolver.resolve(request);
+
+        if (authContext == null) {
+            return ResponseEntity.status(401).body("Unauthorized: No token provided");
+        }
+
+        if (!authContext.isValid()) {
+            return ResponseEntity.status(401).body("Unauthorized: Invalid token");
+        }
+
+        if (!permissionService.hasPermission(request, "/order")) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied: Permission required");
+        }
+
+        if (size < 1) {
+            return ResponseEntity.status(400).body("Error: Size must be at least 1");
+        }
+
+        List<OrderEntity> orders;
+        try {
+            if (cursor == null || cursor.isEmpty()) {
+                orders = orderRepository.findFirstKeysetPage(size + 1);
+            } else {
+                KeysetCursor after = KeysetCursor.decode(cursor);
+                orders = orderRepository.findKeysetPageBefore(new Date(after.getSortKeyAsLong()), after.getId(), size + 1);
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(400).body("Error: Invalid cursor");
+        }
+
+        if (orders.isEmpty()) {
+            return ResponseEntity.status(404).body("No Order process found");
+        }
+
+        String nextCursor = null;
+        if (orders.size() > size) {
+            orders = orders.subList(0, size);
+            OrderEntity last = orders.get(size - 1);
+            nextCursor = KeysetCursor.encode(String.valueOf(last.getDate().getTime()), last.getId());
+        }
+
+        return ResponseEntity.ok(new CursorPage<>(orders, nextCursor));
+    }
+
     public ResponseEntity<?> getOrderByNumber(String orderNumber) {
         Optional<OrderEntity> orderOpt = orderRepository.findByNumber(orderNumber);
         if (orderOpt.isPresent()) {
@@ -89,14 +145,13 @@ public class OrderService {
 
     public ResponseEntity<?> cancelOrderByNumber(HttpServletRequest request, String orderNumber) {
 
-        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
@@ -149,21 +204,36 @@ public class OrderService {
         return ResponseEntity.ok(orderPage);
     }
 
+    @Transactional
     public ResponseEntity<?> addOrder(HttpServletRequest request, CheckoutDTO checkoutDTO, String transaction) {
-        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Unauthorized: Invalid token");
         }
 
         List<ItemDTO> items = checkoutDTO.getItems();
+        Map<String, ItemDTO> storeItems = itemService.getItemsByNumbers(items.stream().map(ItemDTO::getNumber).toList());
+        Map<String, Integer> quantities = new HashMap<>();
         for (ItemDTO item : items) {
-            itemService.changeItemAmount(request, item.getNumber(), - item.getAmount());
+            if (!storeItems.containsKey(item.getNumber())) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Item not found with number: " + item.getNumber());
+            }
+            if (item.getAmount() == null || item.getAmount() < 1) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Error: Invalid amount for item: " + item.getNumber());
+            }
+            quantities.merge(item.getNumber(), item.getAmount(), Integer::sum);
+        }
+
+        try {
+            stockReservationService.reserve(checkoutDTO.getNumber(), quantities);
+        } catch (IllegalArgumentException e) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: " + e.getMessage());
         }
 
         String orderNumber = generateRandomNumber();
@@ -192,6 +262,7 @@ public class OrderService {
         invoiceDTO.setPayment("PayPall");
 
         invoiceService.addInvoice(request,invoiceDTO);
+        stockHoldService.release(checkoutDTO.getNumber());
 
         return ResponseEntity.ok(order);
     }
@@ -3,6 +3,7 @@ package com.gemsflare.gemsflare.payment.service;
 import com.gemsflare.gemsflare.checkout.model.CheckoutDTO;
 import com.gemsflare.gemsflare.checkout.service.CheckoutService;
 import com.gemsflare.gemsflare.item.model.ItemDTO;
+import com.gemsflare.gemsflare.item.service.StockHoldService;
 import com.gemsflare.gemsflare.item.service.ItemService;
 import com.gemsflare.gemsflare.order.service.OrderService;
 import com.paypal.orders.*;
@@ -16,6 +17,7 @@ import org.springframework.stereotype.Service;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class PayPalPayService {
@@ -23,6 +25,8 @@ public class PayPalPayService {
     @Autowired
     private ItemService itemService;
     @Autowired
+    private StockHoldService stockHoldService;
+    @Autowired
     private CheckoutService checkoutService;
     @Autowired
     private OrderService orderService;
@@ -43,14 +47,20 @@ public class PayPalPayService {
 
     public Order createOrder(String checkoutNumber) throws IOException {
         CheckoutDTO checkoutDTO = checkoutService.getCheckoutDTOByNumber(checkoutNumber);
+        Map<String, ItemDTO> storeItems = itemService.getItemsByNumbers(
+                checkoutDTO.getItems().stream().map(ItemDTO::getNumber).toList());
         for (ItemDTO item : checkoutDTO.getItems()) {
-            ItemDTO storeItem = itemService.getItemByNumber(item.getNumber());
+            ItemDTO storeItem = storeItems.get(item.getNumber());
 
             if (storeItem == null) {
                 throw new IllegalArgumentException("Item not found: " + item.getNumber());
             }
 
-            if (storeItem.getAmount() < item.getAmount()) {
+            int available = itemService.getStockAmount(storeItem)
+                    - stockHoldService.getHeld(item.getNumber())
+                    + stockHoldService.getHeldBy(checkoutNumber, item.getNumber());
+
+            if (available < item.getAmount()) {
                 throw new IllegalArgumentException("Insufficient stock for item: " + item.getName());
             }
         }
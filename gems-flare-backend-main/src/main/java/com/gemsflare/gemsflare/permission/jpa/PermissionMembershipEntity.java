@@ -0,0 +1,77 @@
+package com.gemsflare.gemsflare.permission.jpa;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Entity
+@Table(name = "permission_membership", schema = "public",
+        uniqueConstraints = @UniqueConstraint(name = "uk_permission_membership_route_user_role", columnNames = {"route_id", "user_id", "role"}),
+        indexes = @Index(name = "idx_permission_membership_user_role", columnList = "user_id, role, route_id"))
+@NoArgsConstructor
+@AllArgsConstructor
+public class PermissionMembershipEntity {
+
+    public static final String ROLE_ADMIN = "admin";
+    public static final String ROLE_USER = "user";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Column(name = "route_id", nullable = false)
+    private UUID routeId;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(nullable = false)
+    private String role;
+
+    public PermissionMembershipEntity(UUID routeId, UUID userId, String role) {
+        this.routeId = routeId;
+        this.userId = userId;
+        this.role = role;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public UUID getRouteId() {
+        return routeId;
+    }
+
+    public void setRouteId(UUID routeId) {
+        this.routeId = routeId;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public void setRole(String role) {
+        this.role = role;
+    }
+}
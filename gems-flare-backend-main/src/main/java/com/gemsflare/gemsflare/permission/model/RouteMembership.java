@@ -0,0 +1,12 @@
+package com.gemsflare.gemsflare.permission.model;
+
+import java.util.UUID;
+
+public interface RouteMembership {
+
+    String getRoute();
+
+    UUID getUserId();
+
+    String getRole();
+}
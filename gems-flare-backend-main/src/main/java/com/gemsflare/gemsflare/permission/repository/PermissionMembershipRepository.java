@@ -0,0 +1,39 @@
+package com.gemsflare.gemsflare.permission.repository;
+
+import com.gemsflare.gemsflare.permission.jpa.PermissionMembershipEntity;
+import com.gemsflare.gemsflare.permission.model.RouteMembership;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PermissionMembershipRepository extends JpaRepository<PermissionMembershipEntity, UUID> {
+
+    @Query("select p.route as route, m.userId as userId, m.role as role " +
+            "from PermissionMembershipEntity m, PermissionEntity p where m.routeId = p.id")
+    List<RouteMembership> findAllRouteMemberships();
+
+    @Query("select p.route as route, m.userId as userId, m.role as role " +
+            "from PermissionMembershipEntity m, PermissionEntity p where m.routeId = p.id and p.route = :route")
+    List<RouteMembership> findRouteMemberships(@Param("route") String route);
+
+    @Query("select count(m) > 0 from PermissionMembershipEntity m, PermissionEntity p " +
+            "where m.routeId = p.id and p.route = :route and m.userId = :userId and m.role = :role")
+    boolean existsByRouteAndUserId(@Param("route") String route, @Param("userId") UUID userId, @Param("role") String role);
+
+    @Modifying
+    @Transactional
+    @Query("delete from PermissionMembershipEntity m where m.routeId = :routeId and m.userId = :userId and m.role = :role")
+    int deleteMembership(@Param("routeId") UUID routeId, @Param("userId") UUID userId, @Param("role") String role);
+
+    @Modifying
+    @Transactional
+    @Query("delete from PermissionMembershipEntity m where m.routeId = :routeId")
+    int deleteByRouteId(@Param("routeId") UUID routeId);
+}
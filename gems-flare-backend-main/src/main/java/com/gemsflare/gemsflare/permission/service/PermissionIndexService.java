@@ -0,0 +1,143 @@
+package com.gemsflare.gemsflare.permission.service;
+
+import com.gemsflare.gemsflare.permission.jpa.PermissionMembershipEntity;
+import com.gemsflare.gemsflare.permission.model.RouteMembership;
+import com.gemsflare.gemsflare.permission.repository.PermissionMembershipRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class PermissionIndexService {
+
+    @Autowired
+    private PermissionMembershipRepository permissionMembershipRepository;
+
+    private final Map<String, RouteMembers> routeMembers = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<String>> userRoutes = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        Map<String, RouteMembers> members = group(permissionMembershipRepository.findAllRouteMemberships());
+        routeMembers.clear();
+        userRoutes.clear();
+        members.forEach((route, entry) -> index(route, entry.admins(), entry.users()));
+    }
+
+    public void refresh(String route) {
+        afterCommit(() -> {
+            synchronized (this) {
+                RouteMembers members = group(permissionMembershipRepository.findRouteMemberships(route)).get(route);
+                unindex(route);
+                if (members != null) {
+                    index(route, members.admins(), members.users());
+                }
+            }
+        });
+    }
+
+    public void remove(String route) {
+        afterCommit(() -> {
+            synchronized (this) {
+                unindex(route);
+            }
+        });
+    }
+
+    public Map<String, Boolean> getRoutesForUser(UUID userId) {
+        Set<String> routes = userRoutes.get(userId);
+        if (routes == null) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Boolean> result = new HashMap<>();
+        for (String route : routes) {
+            RouteMembers members = routeMembers.get(route);
+            if (members != null) {
+                result.put(route, members.admins().contains(userId));
+            }
+        }
+        return result;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void index(String route, Set<UUID> admins, Set<UUID> users) {
+        routeMembers.put(route, new RouteMembers(admins, users));
+        for (UUID userId : admins) {
+            userRoutes.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(route);
+        }
+        for (UUID userId : users) {
+            userRoutes.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(route);
+        }
+    }
+
+    private void unindex(String route) {
+        RouteMembers members = routeMembers.remove(route);
+        if (members == null) {
+            return;
+        }
+        for (UUID userId : members.admins()) {
+            removeUserRoute(userId, route);
+        }
+        for (UUID userId : members.users()) {
+            removeUserRoute(userId, route);
+        }
+    }
+
+    private void removeUserRoute(UUID userId, String route) {
+        Set<String> routes = userRoutes.get(userId);
+        if (routes != null) {
+            routes.remove(route);
+            if (routes.isEmpty()) {
+                userRoutes.remove(userId);
+            }
+        }
+    }
+
+    private Map<String, RouteMembers> group(List<RouteMembership> memberships) {
+        Map<String, Set<UUID>> admins = new HashMap<>();
+        Map<String, Set<UUID>> users = new HashMap<>();
+        for (RouteMembership membership : memberships) {
+            Set<UUID> routeAdmins = admins.computeIfAbsent(membership.getRoute(), route -> new HashSet<>());
+            Set<UUID> routeUsers = users.computeIfAbsent(membership.getRoute(), route -> new HashSet<>());
+            if (PermissionMembershipEntity.ROLE_ADMIN.equals(membership.getRole())) {
+                routeAdmins.add(membership.getUserId());
+            } else {
+                routeUsers.add(membership.getUserId());
+            }
+        }
+
+        Map<String, RouteMembers> members = new HashMap<>();
+        admins.forEach((route, routeAdmins) -> members.put(route, new RouteMembers(Set.copyOf(routeAdmins), Set.copyOf(users.get(route)))));
+        return members;
+    }
+
+    private record RouteMembers(Set<UUID> admins, Set<UUID> users) {
+    }
+}
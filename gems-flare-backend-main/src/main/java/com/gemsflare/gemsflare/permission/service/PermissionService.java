@@ -1,20 +1,28 @@
 package com.gemsflare.gemsflare.permission.service;
 
 import com.gemsflare.gemsflare.permission.model.PermissionDTO;
-import com.gemsflare.gemsflare.security.JwtUtil;
+import com.gemsflare.gemsflare.permission.model.RouteMembership;
+import com.gemsflare.gemsflare.security.AuthContext;
+import com.gemsflare.gemsflare.security.AuthContextResolver;
 import com.gemsflare.gemsflare.permission.jpa.PermissionEntity;
+import com.gemsflare.gemsflare.permission.jpa.PermissionMembershipEntity;
 import com.gemsflare.gemsflare.user.jpa.UserEntity;
+import com.gemsflare.gemsflare.permission.repository.PermissionMembershipRepository;
 import com.gemsflare.gemsflare.permission.repository.PermissionRepository;
 import com.gemsflare.gemsflare.user.repository.UserRepository;
+import com.gemsflare.gemsflare.user.service.UserRoleCache;
 import com.gemsflare.gemsflare.user.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -25,9 +33,15 @@ public class PermissionService {
     private UserRepository userRepository;
     @Autowired
     private PermissionRepository permissionRepository;
+    @Autowired
+    private PermissionIndexService permissionIndexService;
+    @Autowired
+    private PermissionMembershipRepository permissionMembershipRepository;
+    @Autowired
+    private UserRoleCache userRoleCache;
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private AuthContextResolver authContextResolver;
 
     private final UserService userService;
 
@@ -35,6 +49,7 @@ public class PermissionService {
         this.userService = userService;
     }
 
+    @Transactional
     public ResponseEntity<?> addPermissionItem(HttpServletRequest request, String itemNumber) {
         UUID requesterId = userService.getUserIdFromRequest(request);
 
@@ -48,10 +63,11 @@ public class PermissionService {
         newPermission.setAdmins(List.of(finalUserId));
         newPermission.setUsers(List.of(finalUserId));
 
-        permissionRepository.save(newPermission);
+        saveNewPermission(newPermission);
         return ResponseEntity.ok("Success: Permission item created and admin assigned");
     }
 
+    @Transactional
     public ResponseEntity<?> addPermissionRoute(HttpServletRequest request, String route, UUID adminUserId, String username) {
         UUID requesterId = userService.getUserIdFromRequest(request);
         if (requesterId == null || !isAdmin(requesterId)) {
@@ -72,10 +88,11 @@ public class PermissionService {
         newPermission.setUsers(List.of(finalAdminUserId));
         newPermission.setAdmins(List.of(finalAdminUserId));
 
-        permissionRepository.save(newPermission);
+        saveNewPermission(newPermission);
         return ResponseEntity.ok("Success: Permission route created and admin assigned");
     }
 
+    @Transactional
     public ResponseEntity<?> addPermissionToUser(HttpServletRequest request, String route, UUID userId, String username) {
         UUID requesterId = userService.getUserIdFromRequest(request);
         if (requesterId == null || !hasAdminPermission(requesterId, route)) {
@@ -93,12 +110,16 @@ public class PermissionService {
         }
 
         PermissionEntity permission = optionalPermission.get();
-        List<UUID> users = permission.getUsers();
 
-        if (!users.contains(finalUserId)) {
-            users.add(finalUserId);
-            permission.setUsers(users);
-            permissionRepository.save(permission);
+        if (!permissionMembershipRepository.existsByRouteAndUserId(route, finalUserId, PermissionMembershipEntity.ROLE_USER)) {
+            List<UUID> users = permission.getUsers();
+            if (!users.contains(finalUserId)) {
+                users.add(finalUserId);
+                permission.setUsers(users);
+                permissionRepository.save(permission);
+            }
+            permissionMembershipRepository.save(new PermissionMembershipEntity(permission.getId(), finalUserId, PermissionMembershipEntity.ROLE_USER));
+            permissionIndexService.refresh(route);
             return ResponseEntity.ok("Success: User added to the permission");
         } else {
             return ResponseEntity.status(400).body("Error: User already has permission");
@@ -111,14 +132,7 @@ public class PermissionService {
             return ResponseEntity.status(401).body("Error: Unauthorized");
         }
 
-        List<String> accessibleRoutes = permissionRepository.findAll().stream()
-                .filter(permission -> permission.getUsers().contains(userId) || permission.getAdmins().contains(userId))
-                .map(permission -> {
-                    boolean isAdmin = permission.getAdmins().contains(userId);
-                    String role = isAdmin ? "Admin" : "User";
-                    return permission.getRoute() + ": " + role;
-                })
-                .toList();
+        List<String> accessibleRoutes = toRouteRoles(permissionIndexService.getRoutesForUser(userId));
 
         return ResponseEntity.ok(accessibleRoutes);
     }
@@ -134,14 +148,7 @@ public class PermissionService {
             return ResponseEntity.status(404).body("Error: User not found");
         }
 
-        List<String> accessibleRoutes = permissionRepository.findAll().stream()
-                .filter(permission -> permission.getUsers().contains(targetUserId) || permission.getAdmins().contains(targetUserId))
-                .map(permission -> {
-                    boolean isAdmin = permission.getAdmins().contains(targetUserId);
-                    String role = isAdmin ? "Admin" : "User";
-                    return permission.getRoute() + ": " + role;
-                })
-                .toList();
+        List<String> accessibleRoutes = toRouteRoles(permissionIndexService.getRoutesForUser(targetUserId));
 
         return ResponseEntity.ok(accessibleRoutes);
     }
@@ -157,12 +164,10 @@ public class PermissionService {
             return ResponseEntity.status(404).body("Error: User not found");
         }
 
-        List<String> itemNumbers = permissionRepository.findAll().stream()
-                .filter(permission ->
-                        (permission.getUsers().contains(targetUserId) || permission.getAdmins().contains(targetUserId)) &&
-                                permission.getRoute().startsWith("/item/")
-                )
-                .map(permission -> permission.getRoute().replace("/item/", ""))
+        List<String> itemNumbers = permissionIndexService.getRoutesForUser(targetUserId).keySet().stream()
+                .filter(route -> route.startsWith("/item/"))
+                .sorted()
+                .map(route -> route.replace("/item/", ""))
                 .toList();
 
         return ResponseEntity.ok(itemNumbers);
@@ -174,17 +179,25 @@ public class PermissionService {
             return ResponseEntity.status(403).body("Access denied: Only admins or permission admins can view user permissions");
         }
 
+        Map<String, List<UUID>> admins = new HashMap<>();
+        Map<String, List<UUID>> users = new HashMap<>();
+        for (RouteMembership membership : permissionMembershipRepository.findAllRouteMemberships()) {
+            Map<String, List<UUID>> target = PermissionMembershipEntity.ROLE_ADMIN.equals(membership.getRole()) ? admins : users;
+            target.computeIfAbsent(membership.getRoute(), route -> new ArrayList<>()).add(membership.getUserId());
+        }
+
         List<PermissionDTO> allPermissions = permissionRepository.findAll().stream()
                 .map(permission -> new PermissionDTO(
                         permission.getRoute(),
-                        userService.getUserInfoList(permission.getAdmins()),
-                        userService.getUserInfoList(permission.getUsers())
+                        userService.getUserInfoList(admins.getOrDefault(permission.getRoute(), List.of())),
+                        userService.getUserInfoList(users.getOrDefault(permission.getRoute(), List.of()))
                 ))
                 .toList();
 
         return ResponseEntity.ok(allPermissions);
     }
 
+    @Transactional
     public ResponseEntity<?> removePermissionFromUser(HttpServletRequest request, String route, UUID userId, String username) {
         UUID requesterId = userService.getUserIdFromRequest(request);
         if (requesterId == null || !hasAdminPermission(requesterId, route)) {
@@ -202,19 +215,22 @@ public class PermissionService {
         }
 
         PermissionEntity permission = optionalPermission.get();
-        List<UUID> users = permission.getUsers();
 
-        if (!users.contains(finalUserId)) {
+        if (permissionMembershipRepository.deleteMembership(permission.getId(), finalUserId, PermissionMembershipEntity.ROLE_USER) == 0) {
             return ResponseEntity.status(400).body("Error: User does not have this permission");
         }
 
-        users.remove(finalUserId);
-        permission.setUsers(users);
-        permissionRepository.save(permission);
+        List<UUID> users = permission.getUsers();
+        if (users.remove(finalUserId)) {
+            permission.setUsers(users);
+            permissionRepository.save(permission);
+        }
+        permissionIndexService.refresh(route);
 
         return ResponseEntity.ok("Success: User removed from the permission");
     }
 
+    @Transactional
     public ResponseEntity<?> deletePermission(HttpServletRequest request, String route, String password) {
         UUID requesterId = userService.getUserIdFromRequest(request);
         if (requesterId == null || !hasAdminPermission(requesterId, route)) {
@@ -231,7 +247,9 @@ public class PermissionService {
             return ResponseEntity.status(404).body("Error: Permission not found");
         }
 
+        permissionMembershipRepository.deleteByRouteId(optionalPermission.get().getId());
         permissionRepository.delete(optionalPermission.get());
+        permissionIndexService.remove(route);
         return ResponseEntity.ok("Success: Permission deleted");
     }
 
@@ -252,40 +270,48 @@ public class PermissionService {
         }
     }
 
+    private void saveNewPermission(PermissionEntity permission) {
+        PermissionEntity saved = permissionRepository.save(permission);
+        List<PermissionMembershipEntity> memberships = new ArrayList<>();
+        for (UUID adminId : saved.getAdmins()) {
+            memberships.add(new PermissionMembershipEntity(saved.getId(), adminId, PermissionMembershipEntity.ROLE_ADMIN));
+        }
+        for (UUID userId : saved.getUsers()) {
+            memberships.add(new PermissionMembershipEntity(saved.getId(), userId, PermissionMembershipEntity.ROLE_USER));
+        }
+        permissionMembershipRepository.saveAll(memberships);
+        permissionIndexService.refresh(saved.getRoute());
+    }
+
+    private List<String> toRouteRoles(Map<String, Boolean> routes) {
+        return routes.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> entry.getKey() + ": " + (entry.getValue() ? "Admin" : "User"))
+                .toList();
+    }
+
     private boolean isAdmin(UUID userId) {
-        Optional<UserEntity> user = userRepository.findById(userId);
-        return user.isPresent() && "admin".equalsIgnoreCase(user.get().getRole());
+        return userRoleCache.isAdmin(userId);
     }
 
     private boolean hasAdminPermission(UUID userId, String route) {
         if (isAdmin(userId)) return true;
 
-        Optional<PermissionEntity> permission = permissionRepository.findByRoute(route);
-        return permission.map(p -> p.getAdmins().contains(userId)).orElse(false);
+        return permissionMembershipRepository.existsByRouteAndUserId(route, userId, PermissionMembershipEntity.ROLE_ADMIN);
     }
 
     public boolean hasPermission(HttpServletRequest request, String route) {
-        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
-
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        AuthContext authContext = authContextResolver.resolve(request);
+        if (authContext == null || !authContext.isValid()) {
             return false;
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
-            return false;
-        }
-
-        UUID userId = jwtUtil.getUserIdFromToken(token);
-        Optional<UserEntity> optionalUser = userRepository.findById(userId);
-
-        if (optionalUser.isPresent() && "admin".equalsIgnoreCase(optionalUser.get().getRole())) {
+        UUID userId = authContext.getUserId();
+        if (authContext.isAdmin()) {
             return true;
         }
 
-        Optional<PermissionEntity> permission = permissionRepository.findByRoute(route);
-
-        return permission.map(p -> p.getUsers().contains(userId)).orElse(false);
+        return permissionMembershipRepository.existsByRouteAndUserId(route, userId, PermissionMembershipEntity.ROLE_USER);
     }
 
 }
@@ -0,0 +1,63 @@
+package com.gemsflare.gemsflare.security;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.function.Function;
+
+public class AuthContext {
+
+    static final String ATTRIBUTE = AuthContext.class.getName();
+
+    private final String token;
+    private final UUID userId;
+    private final Date expiration;
+    private final Function<UUID, String> roleLoader;
+    private String role;
+    private boolean roleLoaded;
+
+    AuthContext(String token, UUID userId, Date expiration, Function<UUID, String> roleLoader) {
+        this.token = token;
+        this.userId = userId;
+        this.expiration = expiration;
+        this.roleLoader = roleLoader;
+    }
+
+    static AuthContext invalid(String token) {
+        return new AuthContext(token, null, null, null);
+    }
+
+    public boolean isValid() {
+        return userId != null && expiration.getTime() > System.currentTimeMillis();
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public UUID getUserId() {
+        return isValid() ? userId : null;
+    }
+
+    public Date getExpiration() {
+        return expiration;
+    }
+
+    public boolean expiresWithin(long millis) {
+        return expiration != null && expiration.getTime() - System.currentTimeMillis() <= millis;
+    }
+
+    public String getRole() {
+        if (!isValid()) {
+            return null;
+        }
+        if (!roleLoaded) {
+            role = roleLoader.apply(userId);
+            roleLoaded = true;
+        }
+        return role;
+    }
+
+    public boolean isAdmin() {
+        return "admin".equalsIgnoreCase(getRole());
+    }
+}
@@ -0,0 +1,50 @@
+package com.gemsflare.gemsflare.security;
+
+import com.gemsflare.gemsflare.user.service.UserRoleCache;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Component
+public class AuthContextResolver {
+    private final JwtUtil jwtUtil;
+    private final UserRoleCache userRoleCache;
+
+    public AuthContextResolver(JwtUtil jwtUtil, UserRoleCache userRoleCache) {
+        this.jwtUtil = jwtUtil;
+        this.userRoleCache = userRoleCache;
+    }
+
+    public AuthContext resolve(HttpServletRequest request) {
+        Object cached = request.getAttribute(AuthContext.ATTRIBUTE);
+        if (cached instanceof AuthContext authContext) {
+            return authContext;
+        }
+
+        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            return null;
+        }
+
+        String token = authorizationHeader.substring(7);
+        Claims claims = jwtUtil.parseClaims(token);
+
+        AuthContext authContext;
+        if (claims == null) {
+            authContext = AuthContext.invalid(token);
+        } else {
+            authContext = new AuthContext(token, UUID.fromString(claims.getSubject()), claims.getExpiration(), userRoleCache::getRole);
+        }
+
+        request.setAttribute(AuthContext.ATTRIBUTE, authContext);
+        return authContext;
+    }
+
+    public UUID getUserId(HttpServletRequest request) {
+        AuthContext authContext = resolve(request);
+        return authContext == null ? null : authContext.getUserId();
+    }
+}
@@ -1,6 +1,5 @@
 package com.gemsflare.gemsflare.security;
 
-import com.gemsflare.gemsflare.user.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpFilter;
@@ -11,23 +10,22 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.util.Optional;
-import java.util.UUID;
 
 @Component
 public class JwtAuthFilter extends HttpFilter {
     private final JwtUtil jwtUtil;
-    private final UserRepository userRepository;
+    private final AuthContextResolver authContextResolver;
 
-    public JwtAuthFilter(JwtUtil jwtUtil, UserRepository userRepository) {
+    public JwtAuthFilter(JwtUtil jwtUtil, AuthContextResolver authContextResolver) {
         this.jwtUtil = jwtUtil;
-        this.userRepository = userRepository;
+        this.authContextResolver = authContextResolver;
     }
 
     @Override
     protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws IOException, ServletException {
 
+        AuthContext authContext = authContextResolver.resolve(request);
         String requestURI = request.getRequestURI();
 
         if (
@@ -45,37 +43,50 @@ public class JwtAuthFilter extends HttpFilter {
         )
         {
 
-            String token = request.getHeader(HttpHeaders.AUTHORIZATION);
-            if (token == null || !token.startsWith("Bearer ")) {
+            if (authContext == null) {
                 response.setStatus(HttpStatus.UNAUTHORIZED.value());
                 response.getWriter().write("Missing or invalid token");
                 return;
             }
 
-            token = token.substring(7);
-
-            String validatedToken = jwtUtil.validateAndRenewToken(token);
-
-            if (validatedToken == null) {
+            if (!authContext.isValid()) {
                 response.setStatus(HttpStatus.UNAUTHORIZED.value());
                 response.getWriter().write("Invalid or expired token");
                 return;
             }
 
-            if (!validatedToken.equals(token)) {
-                response.setHeader(HttpHeaders.AUTHORIZATION, "Bearer " + validatedToken);
+            if (authContext.expiresWithin(JwtUtil.RENEW_THRESHOLD)) {
+                response.setHeader(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtil.generateToken(authContext.getUserId()));
             }
 
-            UUID userId = jwtUtil.getUserIdFromToken(validatedToken);
-            Optional<?> user = userRepository.findById(userId);
-
-            if (user.isEmpty()) {
+            if (authContext.getRole() == null) {
                 response.setStatus(HttpStatus.UNAUTHORIZED.value());
                 response.getWriter().write("User not found");
                 return;
             }
         }
 
+        if (isProtectedActuatorRoute(requestURI)) {
+            if (authContext == null || !authContext.isValid()) {
+                response.setStatus(HttpStatus.UNAUTHORIZED.value());
+                response.getWriter().write("Missing or invalid token");
+                return;
+            }
+
+            if (!authContext.isAdmin()) {
+                response.setStatus(HttpStatus.FORBIDDEN.value());
+                response.getWriter().write("Access denied: Admin role required");
+                return;
+            }
+        }
+
         chain.doFilter(request, response);
     }
+
+    private boolean isProtectedActuatorRoute(String requestURI) {
+        if (!requestURI.equals("/actuator") && !requestURI.startsWith("/actuator/")) {
+            return false;
+        }
+        return !requestURI.equals("/actuator/health") && !requestURI.startsWith("/actuator/health/");
+    }
 }
\ No newline at end of file
@@ -1,19 +1,41 @@
 package com.gemsflare.gemsflare.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
     private static final String SECRET_KEY = "ThisIsASecretKeyForJWTGeneration244532";
     private static final long EXPIRATION_TIME = 1000 * 60 * 60 * 24;
+    private static final int VERIFIED_TOKEN_CACHE_SIZE = 10_000;
+    public static final long RENEW_THRESHOLD = 1000 * 60 * 30;
 
     private final Key key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    private final JwtParser parser = Jwts.parser().setSigningKey(key).build();
+    private final Cache<String, Claims> verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(VERIFIED_TOKEN_CACHE_SIZE)
+            .expireAfter(new ClaimsExpiry())
+            .recordStats()
+            .build();
+
+    public JwtUtil(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwtVerifiedTokens");
+    }
 
     public String generateToken(UUID userId) {
         return Jwts.builder()
@@ -25,44 +47,89 @@ public class JwtUtil {
     }
 
     public boolean isTokenValid(String token) {
-        try {
-            Jwts.parser().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
-        } catch (JwtException e) {
-            return false;
-        }
+        return parseClaims(token) != null;
     }
 
     public UUID getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser().setSigningKey(key).build()
-                .parseClaimsJws(token).getBody();
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            throw new JwtException("Invalid or expired token");
+        }
         return UUID.fromString(claims.getSubject());
     }
 
     public String validateAndRenewToken(String token) {
-        try {
-            Claims claims = Jwts.parser().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        Claims claims = parseClaims(token);
+        if (claims == null) {
+            return null;
+        }
 
-            Date expirationDate = claims.getExpiration();
-            long timeRemaining = expirationDate.getTime() - System.currentTimeMillis();
+        Date expirationDate = claims.getExpiration();
+        long timeRemaining = expirationDate.getTime() - System.currentTimeMillis();
 
-            if (timeRemaining <= 0) {
-                return null;
-            }
+        if (timeRemaining <= 0) {
+            return null;
+        }
 
-            if (timeRemaining <= 30 * 60 * 1000) {
-                UUID userId = UUID.fromString(claims.getSubject());
-                return generateToken(userId);
-            }
+        if (timeRemaining <= RENEW_THRESHOLD) {
+            UUID userId = UUID.fromString(claims.getSubject());
+            return generateToken(userId);
+        }
 
-            return token;
+        return token;
+    }
 
-        } catch (JwtException e) {
+    public Claims parseClaims(String token) {
+        if (token == null || token.isEmpty()) {
             return null;
         }
+
+        String tokenHash = hash(token);
+        Claims claims = verifiedTokens.getIfPresent(tokenHash);
+        if (claims != null) {
+            return claims;
+        }
+
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(tokenHash, claims);
+        }
+        return claims;
     }
 
     public Key getKey() {
         return key;
     }
-}
\ No newline at end of file
+
+    private String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static class ClaimsExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remaining = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remaining, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
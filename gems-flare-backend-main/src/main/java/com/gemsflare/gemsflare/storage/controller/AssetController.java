@@ -0,0 +1,27 @@
+package com.gemsflare.gemsflare.storage.controller;
+
+import com.gemsflare.gemsflare.storage.service.local.LocalAssetService;
+import io.swagger.v3.oas.annotations.Operation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+public class AssetController {
+
+    @Autowired
+    private LocalAssetService assetService;
+
+    @Operation(summary = "Serve an uploaded item file with ETag, Cache-Control and byte-range support")
+    @GetMapping({"/uploads/items/{folder}/{fileName}", "/files/items/{folder}/{fileName}"})
+    public ResponseEntity<?> getAsset(
+            @PathVariable String folder,
+            @PathVariable String fileName,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return assetService.serve(folder, fileName, acceptEncoding, range, ifRange, ifNoneMatch);
+    }
+}
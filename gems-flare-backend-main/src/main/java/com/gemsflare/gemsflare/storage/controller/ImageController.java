@@ -24,6 +24,15 @@ public class ImageController {
         return imageService.uploadImageToFolder(request, image, folder, null);
     }
 
+    @Operation(summary = "Upload an image file to a folder by streaming the raw request body")
+    @PostMapping(value = "/uploadStream", consumes = "application/octet-stream")
+    public ResponseEntity<String> uploadImageStream(
+            HttpServletRequest request,
+            @RequestParam("folder") String folder,
+            @RequestParam(value = "fileName", required = false) String fileName) {
+        return imageService.streamImageToFolder(request, folder, fileName);
+    }
+
     @Operation(summary = "Delete an image file from a folder")
     @DeleteMapping("/delete")
     public ResponseEntity<String> deleteImage(
@@ -24,6 +24,15 @@ public class ObjectController {
         return objectService.uploadObjectToFolder(request, object, folder, null);
     }
 
+    @Operation(summary = "Upload an object file to a folder by streaming the raw request body")
+    @PostMapping(value = "/uploadStream", consumes = "application/octet-stream")
+    public ResponseEntity<String> uploadObjectStream(
+            HttpServletRequest request,
+            @RequestParam("folder") String folder,
+            @RequestParam(value = "fileName", required = false) String fileName) {
+        return objectService.streamObjectToFolder(request, folder, fileName);
+    }
+
     @Operation(summary = "Delete an object file from a folder")
     @DeleteMapping("/delete")
     public ResponseEntity<String> deleteObject(
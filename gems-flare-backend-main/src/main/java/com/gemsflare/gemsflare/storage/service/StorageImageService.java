@@ -7,6 +7,7 @@ import org.springframework.web.multipart.MultipartFile;
 public interface StorageImageService {
     String generateRandomFileName(MultipartFile file);
     ResponseEntity<String> uploadImageToFolder(HttpServletRequest request, MultipartFile image, String folder, String fileName);
+    ResponseEntity<String> streamImageToFolder(HttpServletRequest request, String folder, String originalFileName);
     ResponseEntity<String> deleteImage(HttpServletRequest request, String folderName, String fileName);
     ResponseEntity<String> editImage(HttpServletRequest request, MultipartFile image, String folderName, String oldFilePath, String newFileName);
     String getFileNameFromLink(String url);
@@ -4,10 +4,16 @@ import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 public interface StorageObjectService {
     String generateRandomFileName(MultipartFile file);
     ResponseEntity<String> uploadObjectToFolder(HttpServletRequest request, MultipartFile object, String folder, String fileName);
+    ResponseEntity<String> streamObjectToFolder(HttpServletRequest request, String folder, String originalFileName);
     ResponseEntity<String> deleteObject(HttpServletRequest request, String folderName, String fileName);
     ResponseEntity<String> editObject(HttpServletRequest request, MultipartFile object, String folderName, String oldFilePath, String newFileName);
     String getFileNameFromLink(String url);
+    void storeDerivedObject(String folderName, String fileName, Path source, String contentType) throws IOException;
+    void deleteDerivedObject(String folderName, String fileName) throws IOException;
 }
\ No newline at end of file
@@ -1,14 +1,14 @@
 package com.gemsflare.gemsflare.storage.service.gcs;
 
 import com.gemsflare.gemsflare.permission.service.PermissionService;
-import com.gemsflare.gemsflare.security.JwtUtil;
+import com.gemsflare.gemsflare.security.AuthContext;
+import com.gemsflare.gemsflare.security.AuthContextResolver;
 import com.gemsflare.gemsflare.storage.service.StorageImageService;
 import com.google.auth.oauth2.ServiceAccountCredentials;
 import com.google.cloud.storage.*;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -22,7 +22,9 @@ import java.io.InputStream;
 public class GCSImageService implements StorageImageService {
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private AuthContextResolver authContextResolver;
+    @Autowired
+    private GCSUploader gcsUploader;
     @Autowired
     private PermissionService permissionService;
 
@@ -44,15 +46,14 @@ public class GCSImageService implements StorageImageService {
                 folder = folder.substring(0, folder.length() - 1);
             }
 
-            String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+            AuthContext authContext = authContextResolver.resolve(request);
             String route = "/item/" + folder;
 
-            if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            if (authContext == null) {
                 return ResponseEntity.status(401).body("Unauthorized: No token provided");
             }
 
-            String token = authorizationHeader.substring(7);
-            if (!jwtUtil.isTokenValid(token)) {
+            if (!authContext.isValid()) {
                 return ResponseEntity.status(401).body("Unauthorized: Invalid token");
             }
 
@@ -71,7 +72,9 @@ public class GCSImageService implements StorageImageService {
                     .setContentType(image.getContentType())
                     .build();
 
-            storage.create(blobInfo, image.getBytes());
+            try (InputStream in = image.getInputStream()) {
+                gcsUploader.upload(storage, blobInfo, in);
+            }
 
             String imageUrl = String.format("https://storage.googleapis.com/%s/%s", bucketName, filePath);
             return ResponseEntity.ok(imageUrl);
@@ -81,21 +84,58 @@ public class GCSImageService implements StorageImageService {
         }
     }
 
+    public ResponseEntity<String> streamImageToFolder(HttpServletRequest request, String folder, String originalFileName) {
+        try {
+            if (folder.endsWith("/")) {
+                folder = folder.substring(0, folder.length() - 1);
+            }
+
+            AuthContext authContext = authContextResolver.resolve(request);
+            String route = "/item/" + folder;
+
+            if (authContext == null) {
+                return ResponseEntity.status(401).body("Unauthorized: No token provided");
+            }
+
+            if (!authContext.isValid()) {
+                return ResponseEntity.status(401).body("Unauthorized: Invalid token");
+            }
+
+            if (!permissionService.hasPermission(request, route)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied: Permission required");
+            }
+
+            String fileName = generateRandomFileName(originalFileName);
+            String filePath = "items/" + folder + "/" + fileName;
+
+            BlobInfo blobInfo = BlobInfo.newBuilder(BlobId.of(bucketName, filePath))
+                    .setContentType(request.getContentType())
+                    .build();
+
+            String hash = gcsUploader.upload(storage, blobInfo, request.getInputStream());
+
+            String imageUrl = String.format("https://storage.googleapis.com/%s/%s", bucketName, filePath);
+            return ResponseEntity.ok().eTag(hash).body(imageUrl);
+
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body("Image upload failed: " + e.getMessage());
+        }
+    }
+
     public ResponseEntity<String> deleteImage(HttpServletRequest request, String folderName, String fileName) {
         try {
             if (folderName.endsWith("/")) {
                 folderName = folderName.substring(0, folderName.length() - 1);
             }
 
-            String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+            AuthContext authContext = authContextResolver.resolve(request);
             String route = "/item/" + folderName;
 
-            if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            if (authContext == null) {
                 return ResponseEntity.status(401).body("Unauthorized: No token provided");
             }
 
-            String token = authorizationHeader.substring(7);
-            if (!jwtUtil.isTokenValid(token)) {
+            if (!authContext.isValid()) {
                 return ResponseEntity.status(401).body("Unauthorized: Invalid token");
             }
 
@@ -123,15 +163,14 @@ public class GCSImageService implements StorageImageService {
                 folderName = folderName.substring(0, folderName.length() - 1);
             }
 
-            String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+            AuthContext authContext = authContextResolver.resolve(request);
             String route = "/item/" + folderName;
 
-            if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            if (authContext == null) {
                 return ResponseEntity.status(401).body("Unauthorized: No token provided");
             }
 
-            String token = authorizationHeader.substring(7);
-            if (!jwtUtil.isTokenValid(token)) {
+            if (!authContext.isValid()) {
                 return ResponseEntity.status(401).body("Unauthorized: Invalid token");
             }
 
@@ -150,7 +189,9 @@ public class GCSImageService implements StorageImageService {
                     .setContentType(image.getContentType())
                     .build();
 
-            storage.create(blobInfo, image.getBytes());
+            try (InputStream in = image.getInputStream()) {
+                gcsUploader.upload(storage, blobInfo, in);
+            }
 
             oldFilePath = "items/" + getFileNameFromLink(oldFilePath);
 
@@ -168,11 +209,17 @@ public class GCSImageService implements StorageImageService {
     }
 
     public String generateRandomFileName(MultipartFile image) {
-        String originalName = image.getOriginalFilename();
+        return generateRandomFileName(image.getOriginalFilename());
+    }
+
+    private String generateRandomFileName(String originalName) {
         String extension = "";
         if (originalName != null && originalName.contains(".")) {
             extension = originalName.substring(originalName.lastIndexOf("."));
         }
+        if (!extension.matches("\\.[A-Za-z0-9]{1,16}")) {
+            extension = "";
+        }
         return String.valueOf((long) (Math.random() * 1_000_000_000_000L)) + extension;
     }
 
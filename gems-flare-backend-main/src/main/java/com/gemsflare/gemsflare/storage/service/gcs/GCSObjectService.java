@@ -1,14 +1,14 @@
 package com.gemsflare.gemsflare.storage.service.gcs;
 
 import com.gemsflare.gemsflare.permission.service.PermissionService;
-import com.gemsflare.gemsflare.security.JwtUtil;
+import com.gemsflare.gemsflare.security.AuthContext;
+import com.gemsflare.gemsflare.security.AuthContextResolver;
 import com.gemsflare.gemsflare.storage.service.StorageObjectService;
 import com.google.auth.oauth2.ServiceAccountCredentials;
 import com.google.cloud.storage.*;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -16,6 +16,8 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 @Service
 @Profile("prod")
@@ -24,7 +26,9 @@ public class GCSObjectService implements StorageObjectService {
     @Autowired
     private PermissionService permissionService;
     @Autowired
-    private JwtUtil jwtUtil;
+    private AuthContextResolver authContextResolver;
+    @Autowired
+    private GCSUploader gcsUploader;
 
     private final String bucketName = "gemsflare-src";
 
@@ -44,15 +48,14 @@ public class GCSObjectService implements StorageObjectService {
                 folder = folder.substring(0, folder.length() - 1);
             }
 
-            String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+            AuthContext authContext = authContextResolver.resolve(request);
             String route = "/item/" + folder;
 
-            if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            if (authContext == null) {
                 return ResponseEntity.status(401).body("Unauthorized: No token provided");
             }
 
-            String token = authorizationHeader.substring(7);
-            if (!jwtUtil.isTokenValid(token)) {
+            if (!authContext.isValid()) {
                 return ResponseEntity.status(401).body("Unauthorized: Invalid token");
             }
 
@@ -71,7 +74,9 @@ public class GCSObjectService implements StorageObjectService {
                     .setContentType(object.getContentType())
                     .build();
 
-            storage.create(blobInfo, object.getBytes());
+            try (InputStream in = object.getInputStream()) {
+                gcsUploader.upload(storage, blobInfo, in);
+            }
 
             String imageUrl = String.format("https://storage.googleapis.com/%s/%s", bucketName, filePath);
             return ResponseEntity.ok(imageUrl);
@@ -81,21 +86,58 @@ public class GCSObjectService implements StorageObjectService {
         }
     }
 
+    public ResponseEntity<String> streamObjectToFolder(HttpServletRequest request, String folder, String originalFileName) {
+        try {
+            if (folder.endsWith("/")) {
+                folder = folder.substring(0, folder.length() - 1);
+            }
+
+            AuthContext authContext = authContextResolver.resolve(request);
+            String route = "/item/" + folder;
+
+            if (authContext == null) {
+                return ResponseEntity.status(401).body("Unauthorized: No token provided");
+            }
+
+            if (!authContext.isValid()) {
+                return ResponseEntity.status(401).body("Unauthorized: Invalid token");
+            }
+
+            if (!permissionService.hasPermission(request, route)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied: Permission required");
+            }
+
+            String fileName = generateRandomFileName(originalFileName);
+            String filePath = "items/" + folder + "/" + fileName;
+
+            BlobInfo blobInfo = BlobInfo.newBuilder(BlobId.of(bucketName, filePath))
+                    .setContentType(request.getContentType())
+                    .build();
+
+            String hash = gcsUploader.upload(storage, blobInfo, request.getInputStream());
+
+            String objectUrl = String.format("https://storage.googleapis.com/%s/%s", bucketName, filePath);
+            return ResponseEntity.ok().eTag(hash).body(objectUrl);
+
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body("Object upload failed: " + e.getMessage());
+        }
+    }
+
     public ResponseEntity<String> deleteObject(HttpServletRequest request, String folderName, String fileName) {
         try {
             if (folderName.endsWith("/")) {
                 folderName = folderName.substring(0, folderName.length() - 1);
             }
 
-            String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+            AuthContext authContext = authContextResolver.resolve(request);
             String route = "/item/" + folderName;
 
-            if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            if (authContext == null) {
                 return ResponseEntity.status(401).body("Unauthorized: No token provided");
             }
 
-            String token = authorizationHeader.substring(7);
-            if (!jwtUtil.isTokenValid(token)) {
+            if (!authContext.isValid()) {
                 return ResponseEntity.status(401).body("Unauthorized: Invalid token");
             }
 
@@ -123,15 +165,14 @@ public class GCSObjectService implements StorageObjectService {
                 folderName = folderName.substring(0, folderName.length() - 1);
             }
 
-            String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+            AuthContext authContext = authContextResolver.resolve(request);
             String route = "/item/" + folderName;
 
-            if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            if (authContext == null) {
                 return ResponseEntity.status(401).body("Unauthorized: No token provided");
             }
 
-            String token = authorizationHeader.substring(7);
-            if (!jwtUtil.isTokenValid(token)) {
+            if (!authContext.isValid()) {
                 return ResponseEntity.status(401).body("Unauthorized: Invalid token");
             }
 
@@ -150,7 +191,9 @@ public class GCSObjectService implements StorageObjectService {
                     .setContentType(object.getContentType())
                     .build();
 
-            storage.create(blobInfo, object.getBytes());
+            try (InputStream in = object.getInputStream()) {
+                gcsUploader.upload(storage, blobInfo, in);
+            }
 
             oldFilePath = "items/" + getFileNameFromLink(oldFilePath);
 
@@ -167,12 +210,32 @@ public class GCSObjectService implements StorageObjectService {
         }
     }
 
+    public void storeDerivedObject(String folderName, String fileName, Path source, String contentType) throws IOException {
+        BlobInfo blobInfo = BlobInfo.newBuilder(BlobId.of(bucketName, "items/" + folderName + "/" + fileName))
+                .setContentType(contentType)
+                .build();
+
+        try (InputStream in = Files.newInputStream(source)) {
+            gcsUploader.upload(storage, blobInfo, in);
+        }
+    }
+
+    public void deleteDerivedObject(String folderName, String fileName) {
+        storage.delete(BlobId.of(bucketName, "items/" + folderName + "/" + fileName));
+    }
+
     public String generateRandomFileName(MultipartFile object) {
-        String originalName = object.getOriginalFilename();
+        return generateRandomFileName(object.getOriginalFilename());
+    }
+
+    private String generateRandomFileName(String originalName) {
         String extension = "";
         if (originalName != null && originalName.contains(".")) {
             extension = originalName.substring(originalName.lastIndexOf("."));
         }
+        if (!extension.matches("\\.[A-Za-z0-9]{1,16}")) {
+            extension = "";
+        }
         return String.valueOf((long) (Math.random() * 1_000_000_000_000L)) + extension;
     }
 
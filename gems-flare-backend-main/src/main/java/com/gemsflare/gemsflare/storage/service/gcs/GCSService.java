@@ -1,7 +1,8 @@
 package com.gemsflare.gemsflare.storage.service.gcs;
 
 import com.gemsflare.gemsflare.permission.service.PermissionService;
-import com.gemsflare.gemsflare.security.JwtUtil;
+import com.gemsflare.gemsflare.security.AuthContext;
+import com.gemsflare.gemsflare.security.AuthContextResolver;
 import com.gemsflare.gemsflare.storage.service.StorageFolderService;
 import com.google.api.gax.paging.Page;
 import com.google.auth.oauth2.ServiceAccountCredentials;
@@ -11,7 +12,6 @@ import com.google.cloud.storage.StorageOptions;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Profile;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -24,7 +24,7 @@ import java.io.InputStream;
 public class GCSService implements StorageFolderService {
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private AuthContextResolver authContextResolver;
     @Autowired
     private PermissionService permissionService;
 
@@ -46,15 +46,14 @@ public class GCSService implements StorageFolderService {
             folderName = folderName.substring(0, folderName.length() - 1);
         }
 
-        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        AuthContext authContext = authContextResolver.resolve(request);
         String route = "/item/" + folderName;
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
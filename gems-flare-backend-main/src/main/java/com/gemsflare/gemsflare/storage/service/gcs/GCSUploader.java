@@ -0,0 +1,125 @@
+package com.gemsflare.gemsflare.storage.service.gcs;
+
+import com.google.cloud.RestorableState;
+import com.google.cloud.WriteChannel;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+@Component
+@Profile("prod")
+public class GCSUploader {
+
+    private static final int CHUNK_GRANULARITY = 256 * 1024;
+    private static final long MAX_CHUNK_BYTES = 256L * 1024 * 1024;
+    private static final long RETRY_BACKOFF_MS = 500;
+
+    @Value("${storage.gcs.chunk-size:16MB}")
+    private DataSize chunkSize;
+
+    @Value("${storage.gcs.chunk-retries:3}")
+    private int chunkRetries;
+
+    public String upload(Storage storage, BlobInfo blobInfo, InputStream in) throws IOException {
+        int size = chunkBytes();
+        byte[] buffer = new byte[CHUNK_GRANULARITY];
+        MessageDigest digest = sha256();
+
+        WriteChannel writer = storage.writer(blobInfo);
+        writer.setChunkSize(size);
+        try {
+            long buffered = 0;
+            int read;
+            while ((read = in.readNBytes(buffer, 0, buffer.length)) > 0) {
+                digest.update(buffer, 0, read);
+                ByteBuffer data = ByteBuffer.wrap(buffer, 0, read);
+                buffered += read;
+                if (buffered < size) {
+                    write(writer, data);
+                } else {
+                    writer = sendChunk(writer, data);
+                    buffered -= size;
+                }
+            }
+            writer = closeWithRetry(writer);
+        } finally {
+            if (writer.isOpen()) {
+                writer.close();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private WriteChannel sendChunk(WriteChannel writer, ByteBuffer buffer) throws IOException {
+        RestorableState<WriteChannel> state = writer.capture();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                write(writer, buffer);
+                return writer;
+            } catch (IOException | StorageException e) {
+                if (attempt >= chunkRetries) {
+                    throw e;
+                }
+                backoff(attempt);
+                writer = state.restore();
+                buffer.rewind();
+            }
+        }
+    }
+
+    private void write(WriteChannel writer, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            writer.write(buffer);
+        }
+    }
+
+    private WriteChannel closeWithRetry(WriteChannel writer) throws IOException {
+        RestorableState<WriteChannel> state = writer.capture();
+        for (int attempt = 0; ; attempt++) {
+            try {
+                writer.close();
+                return writer;
+            } catch (IOException | StorageException e) {
+                if (attempt >= chunkRetries) {
+                    throw e;
+                }
+                backoff(attempt);
+                writer = state.restore();
+            }
+        }
+    }
+
+    private int chunkBytes() {
+        long bytes = Math.max(chunkSize.toBytes(), CHUNK_GRANULARITY);
+        long rounded = (bytes + CHUNK_GRANULARITY - 1) / CHUNK_GRANULARITY * CHUNK_GRANULARITY;
+        return (int) Math.min(rounded, MAX_CHUNK_BYTES);
+    }
+
+    private void backoff(int attempt) throws IOException {
+        try {
+            Thread.sleep(RETRY_BACKOFF_MS << attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Upload interrupted", e);
+        }
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.gemsflare.gemsflare.storage.service.local;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+public class AssetPrecompressor {
+
+    static final String GZIP_SUFFIX = ".gz";
+    static final String BROTLI_SUFFIX = ".br";
+
+    private static final Set<String> COMPRESSIBLE_EXTENSIONS = Set.of("obj", "mtl", "gltf");
+    private static final int QUEUE_CAPACITY = 256;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final double MAX_RATIO = 0.9;
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            runnable -> {
+                Thread thread = new Thread(runnable, "asset-precompress");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            },
+            new ThreadPoolExecutor.DiscardPolicy());
+
+    public static boolean isCompressible(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot >= 0 && COMPRESSIBLE_EXTENSIONS.contains(fileName.substring(dot + 1).toLowerCase());
+    }
+
+    static Path variant(Path file, String suffix) {
+        return file.resolveSibling(file.getFileName() + suffix);
+    }
+
+    public void submit(Path file) {
+        if (isCompressible(file.getFileName().toString())) {
+            executor.execute(() -> precompress(file));
+        }
+    }
+
+    public void deleteVariants(Path file) throws IOException {
+        Files.deleteIfExists(variant(file, GZIP_SUFFIX));
+        Files.deleteIfExists(variant(file, BROTLI_SUFFIX));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void precompress(Path file) {
+        Path target = variant(file, GZIP_SUFFIX);
+        Path temp = file.resolveSibling("." + target.getFileName() + "." + UUID.randomUUID() + ".part");
+        try {
+            try (InputStream in = Files.newInputStream(file);
+                 OutputStream out = new BestGzipOutputStream(Files.newOutputStream(temp, StandardOpenOption.CREATE_NEW))) {
+                in.transferTo(out);
+            }
+
+            if (Files.size(temp) > Files.size(file) * MAX_RATIO) {
+                Files.deleteIfExists(temp);
+                Files.deleteIfExists(target);
+                return;
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // the original is still served uncompressed
+            }
+        }
+    }
+
+    private static final class BestGzipOutputStream extends GZIPOutputStream {
+        BestGzipOutputStream(OutputStream out) throws IOException {
+            super(out, BUFFER_SIZE);
+            def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.gemsflare.gemsflare.storage.service.local;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class LocalAssetService {
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePublic();
+    private static final Map<String, MediaType> MODEL_TYPES = Map.of(
+            "obj", MediaType.parseMediaType("model/obj"),
+            "mtl", MediaType.parseMediaType("model/mtl"),
+            "glb", MediaType.parseMediaType("model/gltf-binary"),
+            "gltf", MediaType.parseMediaType("model/gltf+json")
+    );
+    private static final List<String> PRECOMPRESSED_ENCODINGS = List.of("br", "gzip");
+    private static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    private final Path itemsRoot;
+    private final Cache<Path, FileTag> tags = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .recordStats()
+            .build();
+
+    public LocalAssetService(@Value("${file.storage.location:uploads}") String storageLocation, MeterRegistry meterRegistry) {
+        this.itemsRoot = Paths.get(storageLocation, "items");
+        CaffeineCacheMetrics.monitor(meterRegistry, tags, "asset.etags");
+    }
+
+    public ResponseEntity<?> serve(String folder, String fileName, String acceptEncoding,
+                                   String range, String ifRange, String ifNoneMatch) {
+        Path path;
+        BasicFileAttributes attributes;
+        try {
+            path = StreamingFileWriter.resolveInside(itemsRoot, folder, fileName);
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IllegalArgumentException e) {
+            return textResponse(HttpStatus.BAD_REQUEST, "Error: " + e.getMessage());
+        } catch (NoSuchFileException e) {
+            return textResponse(HttpStatus.NOT_FOUND, "Error: File not found");
+        } catch (IOException e) {
+            return textResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Error: " + e.getMessage());
+        }
+        if (!attributes.isRegularFile()) {
+            return textResponse(HttpStatus.NOT_FOUND, "Error: File not found");
+        }
+
+        String etag = etagOf(path, attributes);
+
+        CacheControl cacheControl = StreamingFileWriter.isWriteOnce(fileName) ? IMMUTABLE : REVALIDATE;
+        boolean compressible = AssetPrecompressor.isCompressible(fileName);
+        Representation representation = compressible
+                ? negotiate(path, attributes, etag, acceptEncoding)
+                : new Representation(path, attributes.size(), etag, null);
+
+        HttpHeaders encodingHeaders = new HttpHeaders();
+        if (compressible) {
+            encodingHeaders.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (representation.encoding() != null) {
+            encodingHeaders.set(HttpHeaders.CONTENT_ENCODING, representation.encoding());
+        }
+
+        if (etagMatches(ifNoneMatch, representation.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .headers(encodingHeaders)
+                    .eTag(representation.etag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        long length = representation.length();
+        Path source = representation.path();
+        MediaType contentType = contentTypeOf(fileName);
+        ByteRange byteRange = ifRangeMatches(ifRange, representation.etag()) ? parseRange(range, length) : null;
+
+        if (byteRange == UNSATISFIABLE) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .headers(encodingHeaders)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .eTag(representation.etag())
+                    .build();
+        }
+
+        if (byteRange != null) {
+            long count = byteRange.end() - byteRange.start() + 1;
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                    .headers(encodingHeaders)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .eTag(representation.etag())
+                    .cacheControl(cacheControl)
+                    .contentType(contentType)
+                    .body(new ResourceRegion(new FileSystemResource(source), byteRange.start(), count));
+        }
+
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .headers(encodingHeaders)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .eTag(representation.etag())
+                .cacheControl(cacheControl)
+                .contentType(contentType)
+                .contentLength(length);
+        if (range != null) {
+            // a Resource body would make Spring apply the Range header that If-Range just ruled out
+            return ok.body((StreamingResponseBody) out -> transfer(source, 0, length, out));
+        }
+        return ok.body(new FileSystemResource(source));
+    }
+
+    private Representation negotiate(Path path, BasicFileAttributes attributes, String etag, String acceptEncoding) {
+        for (String encoding : PRECOMPRESSED_ENCODINGS) {
+            if (!acceptsEncoding(acceptEncoding, encoding)) {
+                continue;
+            }
+            String suffix = encoding.equals("br") ? AssetPrecompressor.BROTLI_SUFFIX : AssetPrecompressor.GZIP_SUFFIX;
+            Path variant = AssetPrecompressor.variant(path, suffix);
+            try {
+                BasicFileAttributes variantAttributes = Files.readAttributes(variant, BasicFileAttributes.class);
+                if (variantAttributes.isRegularFile()
+                        && variantAttributes.lastModifiedTime().compareTo(attributes.lastModifiedTime()) >= 0) {
+                    return new Representation(variant, variantAttributes.size(), etag + "-" + encoding, encoding);
+                }
+            } catch (IOException e) {
+                // no usable precompressed variant for this encoding
+            }
+        }
+        return new Representation(path, attributes.size(), etag, null);
+    }
+
+    private boolean acceptsEncoding(String acceptEncoding, String encoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.split(";");
+            if (!parts[0].trim().equalsIgnoreCase(encoding)) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private String etagOf(Path path, BasicFileAttributes attributes) {
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+        FileTag cached = tags.getIfPresent(path);
+        if (cached != null && cached.size() == size && cached.modified() == modified) {
+            return cached.etag();
+        }
+
+        String etag = StreamingFileWriter.storedSha256(path);
+        if (etag == null) {
+            etag = Long.toHexString(size) + "-" + Long.toHexString(modified);
+        }
+        tags.put(path, new FileTag(size, modified, etag));
+        return etag;
+    }
+
+    private void transfer(Path path, long start, long count, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private ByteRange parseRange(String range, long length) {
+        if (range == null || !range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+
+        String first = spec.substring(0, dash).trim();
+        String last = spec.substring(dash + 1).trim();
+        try {
+            if (first.isEmpty()) {
+                if (last.isEmpty()) {
+                    return null;
+                }
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || length == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, length - suffix), length - 1);
+            }
+
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length - 1 : Long.parseLong(last);
+            if (end < start) {
+                return null;
+            }
+            if (start >= length) {
+                return UNSATISFIABLE;
+            }
+            return new ByteRange(start, Math.min(end, length - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private boolean ifRangeMatches(String ifRange, String etag) {
+        return ifRange == null || ifRange.trim().equals("\"" + etag + "\"");
+    }
+
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String value = tag.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.replace("\"", "").equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private MediaType contentTypeOf(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        if (dot >= 0) {
+            MediaType modelType = MODEL_TYPES.get(fileName.substring(dot + 1).toLowerCase());
+            if (modelType != null) {
+                return modelType;
+            }
+        }
+        return MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    private ResponseEntity<String> textResponse(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(message);
+    }
+
+    private record FileTag(long size, long modified, String etag) {
+    }
+
+    private record ByteRange(long start, long end) {
+    }
+
+    private record Representation(Path path, long length, String etag, String encoding) {
+    }
+}
@@ -1,16 +1,17 @@
 package com.gemsflare.gemsflare.storage.service.local;
 
 import com.gemsflare.gemsflare.permission.service.PermissionService;
-import com.gemsflare.gemsflare.security.JwtUtil;
+import com.gemsflare.gemsflare.security.AuthContext;
+import com.gemsflare.gemsflare.security.AuthContextResolver;
 import com.gemsflare.gemsflare.storage.service.StorageImageService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -21,7 +22,7 @@ import java.nio.file.*;
 public class LocalImageService implements StorageImageService {
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private AuthContextResolver authContextResolver;
 
     @Autowired
     private PermissionService permissionService;
@@ -29,21 +30,23 @@ public class LocalImageService implements StorageImageService {
     @Value("${file.storage.location:uploads}")
     private String storageLocation;
 
+    @Value("${spring.servlet.multipart.max-file-size:1000MB}")
+    private DataSize maxUploadSize;
+
     public ResponseEntity<String> uploadImageToFolder(HttpServletRequest request, MultipartFile image, String folder, String fileName) {
         try {
             if (folder.endsWith("/")) {
                 folder = folder.substring(0, folder.length() - 1);
             }
 
-            String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+            AuthContext authContext = authContextResolver.resolve(request);
             String route = "/item/" + folder;
 
-            if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            if (authContext == null) {
                 return ResponseEntity.status(401).body("Unauthorized: No token provided");
             }
 
-            String token = authorizationHeader.substring(7);
-            if (!jwtUtil.isTokenValid(token)) {
+            if (!authContext.isValid()) {
                 return ResponseEntity.status(401).body("Unauthorized: Invalid token");
             }
 
@@ -59,11 +62,57 @@ public class LocalImageService implements StorageImageService {
             Files.createDirectories(folderPath);
 
             Path filePath = folderPath.resolve(fileName);
-            Files.copy(image.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            StreamingFileWriter.write(image.getInputStream(), filePath, Long.MAX_VALUE);
 
             String imageUrl = "/files/items/" + folder + "/" + fileName;
             return ResponseEntity.ok(imageUrl);
 
+        } catch (FileAlreadyExistsException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: File already exists: " + e.getFile());
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body("Image upload failed: " + e.getMessage());
+        }
+    }
+
+    public ResponseEntity<String> streamImageToFolder(HttpServletRequest request, String folder, String originalFileName) {
+        try {
+            if (folder.endsWith("/")) {
+                folder = folder.substring(0, folder.length() - 1);
+            }
+
+            AuthContext authContext = authContextResolver.resolve(request);
+            String route = "/item/" + folder;
+
+            if (authContext == null) {
+                return ResponseEntity.status(401).body("Unauthorized: No token provided");
+            }
+
+            if (!authContext.isValid()) {
+                return ResponseEntity.status(401).body("Unauthorized: Invalid token");
+            }
+
+            if (!permissionService.hasPermission(request, route)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied: Permission required");
+            }
+
+            if (request.getContentLengthLong() > maxUploadSize.toBytes()) {
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body("Image upload failed: file is too large");
+            }
+
+            String fileName = generateRandomFileName(originalFileName);
+            Path folderPath = StreamingFileWriter.resolveInside(Paths.get(storageLocation, "items"), folder);
+            Files.createDirectories(folderPath);
+
+            StreamingFileWriter.StoredFile stored = StreamingFileWriter.write(
+                    request.getInputStream(), folderPath.resolve(fileName), maxUploadSize.toBytes());
+
+            String imageUrl = "/files/items/" + folder + "/" + fileName;
+            return ResponseEntity.ok().eTag(stored.sha256()).body(imageUrl);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Image upload failed: " + e.getMessage());
+        } catch (FileAlreadyExistsException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: File already exists: " + e.getFile());
         } catch (IOException e) {
             return ResponseEntity.status(500).body("Image upload failed: " + e.getMessage());
         }
@@ -89,7 +138,7 @@ public class LocalImageService implements StorageImageService {
             Files.createDirectories(folderPath);
 
             Path newFilePath = folderPath.resolve(newFileName);
-            Files.copy(image.getInputStream(), newFilePath, StandardCopyOption.REPLACE_EXISTING);
+            StreamingFileWriter.write(image.getInputStream(), newFilePath, Long.MAX_VALUE);
 
             String oldFileName = getFileNameFromLink(oldFilePath);
             Path oldPath = folderPath.resolve(oldFileName);
@@ -98,17 +147,25 @@ public class LocalImageService implements StorageImageService {
             String newImageUrl = "/files/items/" + folderName + "/" + newFileName;
             return ResponseEntity.ok("Image updated successfully: " + newImageUrl);
 
+        } catch (FileAlreadyExistsException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: File already exists: " + e.getFile());
         } catch (IOException e) {
             return ResponseEntity.status(500).body("Image update failed: " + e.getMessage());
         }
     }
 
     public String generateRandomFileName(MultipartFile file) {
-        String originalName = file.getOriginalFilename();
+        return generateRandomFileName(file.getOriginalFilename());
+    }
+
+    private String generateRandomFileName(String originalName) {
         String extension = "";
         if (originalName != null && originalName.contains(".")) {
             extension = originalName.substring(originalName.lastIndexOf("."));
         }
+        if (!extension.matches("\\.[A-Za-z0-9]{1,16}")) {
+            extension = "";
+        }
         return System.currentTimeMillis() + "-" + (long) (Math.random() * 1_000_000) + extension;
     }
 
@@ -1,19 +1,21 @@
 package com.gemsflare.gemsflare.storage.service.local;
 
 import com.gemsflare.gemsflare.permission.service.PermissionService;
-import com.gemsflare.gemsflare.security.JwtUtil;
+import com.gemsflare.gemsflare.security.AuthContext;
+import com.gemsflare.gemsflare.security.AuthContextResolver;
 import com.gemsflare.gemsflare.storage.service.StorageObjectService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.*;
 
 @Service
@@ -23,26 +25,30 @@ public class LocalObjectService implements StorageObjectService {
     @Autowired
     private PermissionService permissionService;
     @Autowired
-    private JwtUtil jwtUtil;
+    private AuthContextResolver authContextResolver;
+    @Autowired
+    private AssetPrecompressor assetPrecompressor;
 
     @Value("${file.storage.location:uploads}")
     private String storageLocation;
 
+    @Value("${spring.servlet.multipart.max-file-size:1000MB}")
+    private DataSize maxUploadSize;
+
     public ResponseEntity<String> uploadObjectToFolder(HttpServletRequest request, MultipartFile object, String folder, String fileName) {
         try {
             if (folder.endsWith("/")) {
                 folder = folder.substring(0, folder.length() - 1);
             }
 
-            String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+            AuthContext authContext = authContextResolver.resolve(request);
             String route = "/item/" + folder;
 
-            if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            if (authContext == null) {
                 return ResponseEntity.status(401).body("Unauthorized: No token provided");
             }
 
-            String token = authorizationHeader.substring(7);
-            if (!jwtUtil.isTokenValid(token)) {
+            if (!authContext.isValid()) {
                 return ResponseEntity.status(401).body("Unauthorized: Invalid token");
             }
 
@@ -58,11 +64,59 @@ public class LocalObjectService implements StorageObjectService {
             Files.createDirectories(folderPath);
 
             Path filePath = folderPath.resolve(fileName);
-            Files.copy(object.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            StreamingFileWriter.write(object.getInputStream(), filePath, Long.MAX_VALUE);
+            assetPrecompressor.submit(filePath);
 
             String objectUrl = "/files/items/" + folder + "/" + fileName;
             return ResponseEntity.ok(objectUrl);
 
+        } catch (FileAlreadyExistsException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: File already exists: " + e.getFile());
+        } catch (IOException e) {
+            return ResponseEntity.status(500).body("Object upload failed: " + e.getMessage());
+        }
+    }
+
+    public ResponseEntity<String> streamObjectToFolder(HttpServletRequest request, String folder, String originalFileName) {
+        try {
+            if (folder.endsWith("/")) {
+                folder = folder.substring(0, folder.length() - 1);
+            }
+
+            AuthContext authContext = authContextResolver.resolve(request);
+            String route = "/item/" + folder;
+
+            if (authContext == null) {
+                return ResponseEntity.status(401).body("Unauthorized: No token provided");
+            }
+
+            if (!authContext.isValid()) {
+                return ResponseEntity.status(401).body("Unauthorized: Invalid token");
+            }
+
+            if (!permissionService.hasPermission(request, route)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Access denied: Permission required");
+            }
+
+            if (request.getContentLengthLong() > maxUploadSize.toBytes()) {
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body("Object upload failed: file is too large");
+            }
+
+            String fileName = generateRandomFileName(originalFileName);
+            Path folderPath = StreamingFileWriter.resolveInside(Paths.get(storageLocation, "items"), folder);
+            Files.createDirectories(folderPath);
+
+            StreamingFileWriter.StoredFile stored = StreamingFileWriter.write(
+                    request.getInputStream(), folderPath.resolve(fileName), maxUploadSize.toBytes());
+            assetPrecompressor.submit(stored.path());
+
+            String objectUrl = "/files/items/" + folder + "/" + fileName;
+            return ResponseEntity.ok().eTag(stored.sha256()).body(objectUrl);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Object upload failed: " + e.getMessage());
+        } catch (FileAlreadyExistsException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: File already exists: " + e.getFile());
         } catch (IOException e) {
             return ResponseEntity.status(500).body("Object upload failed: " + e.getMessage());
         }
@@ -72,6 +126,7 @@ public class LocalObjectService implements StorageObjectService {
         try {
             Path filePath = Paths.get(storageLocation, "items", folderName, fileName);
             boolean deleted = Files.deleteIfExists(filePath);
+            assetPrecompressor.deleteVariants(filePath);
 
             if (deleted) {
                 return ResponseEntity.ok("Object deleted successfully.");
@@ -93,26 +148,55 @@ public class LocalObjectService implements StorageObjectService {
             Files.createDirectories(folderPath);
 
             Path newFilePath = folderPath.resolve(newFileName);
-            Files.copy(object.getInputStream(), newFilePath, StandardCopyOption.REPLACE_EXISTING);
+            StreamingFileWriter.write(object.getInputStream(), newFilePath, Long.MAX_VALUE);
 
             String oldFileName = getFileNameFromLink(oldFilePath);
             Path oldPath = folderPath.resolve(oldFileName);
             Files.deleteIfExists(oldPath);
+            assetPrecompressor.deleteVariants(oldPath);
+            assetPrecompressor.submit(newFilePath);
 
             String newObjectUrl = "/files/items/" + folderName + "/" + newFileName;
             return ResponseEntity.ok("Object updated successfully: " + newObjectUrl);
 
+        } catch (FileAlreadyExistsException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Error: File already exists: " + e.getFile());
         } catch (IOException e) {
             return ResponseEntity.status(500).body("Object update failed: " + e.getMessage());
         }
     }
 
+    public void storeDerivedObject(String folderName, String fileName, Path source, String contentType) throws IOException {
+        Path folderPath = StreamingFileWriter.resolveInside(Paths.get(storageLocation, "items"), folderName);
+        Files.createDirectories(folderPath);
+
+        try (InputStream in = Files.newInputStream(source)) {
+            Path target = StreamingFileWriter.resolveInside(folderPath, fileName);
+            StreamingFileWriter.write(in, target, Long.MAX_VALUE);
+            assetPrecompressor.submit(target);
+        } catch (FileAlreadyExistsException e) {
+            // derived from a write-once source, so the existing file already has this content
+        }
+    }
+
+    public void deleteDerivedObject(String folderName, String fileName) throws IOException {
+        Path filePath = StreamingFileWriter.resolveInside(Paths.get(storageLocation, "items"), folderName, fileName);
+        Files.deleteIfExists(filePath);
+        assetPrecompressor.deleteVariants(filePath);
+    }
+
     public String generateRandomFileName(MultipartFile object) {
-        String originalName = object.getOriginalFilename();
+        return generateRandomFileName(object.getOriginalFilename());
+    }
+
+    private String generateRandomFileName(String originalName) {
         String extension = "";
         if (originalName != null && originalName.contains(".")) {
             extension = originalName.substring(originalName.lastIndexOf("."));
         }
+        if (!extension.matches("\\.[A-Za-z0-9]{1,16}")) {
+            extension = "";
+        }
         return System.currentTimeMillis() + "-" + (long) (Math.random() * 1_000_000) + extension;
     }
 
@@ -0,0 +1,142 @@
+package com.gemsflare.gemsflare.storage.service.local;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+final class StreamingFileWriter {
+
+    private static final Pattern GENERATED_NAME = Pattern.compile("\\d+-\\d+(\\.[A-Za-z0-9]{1,16})?");
+    private static final int BUFFER_SIZE = 256 * 1024;
+    private static final String SHA256_ATTRIBUTE = "sha256";
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    record StoredFile(Path path, long size, String sha256) {
+    }
+
+    private StreamingFileWriter() {
+    }
+
+    static StoredFile write(InputStream in, Path target, long maxBytes) throws IOException {
+        Path temp = target.resolveSibling("." + target.getFileName() + "." + UUID.randomUUID() + ".part");
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = BUFFERS.get();
+        long size = 0;
+        String sha256;
+
+        try {
+            try (ReadableByteChannel source = Channels.newChannel(in);
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                while (true) {
+                    buffer.clear();
+                    int read = source.read(buffer);
+                    if (read < 0) {
+                        break;
+                    }
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new IllegalArgumentException("Upload exceeds the maximum size of " + maxBytes + " bytes");
+                    }
+
+                    buffer.flip();
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                }
+                out.force(true);
+            }
+            sha256 = HexFormat.of().formatHex(digest.digest());
+            recordSha256(temp, sha256);
+            if (isWriteOnce(target.getFileName().toString())) {
+                publishOnce(temp, target);
+            } else {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        return new StoredFile(target, size, sha256);
+    }
+
+    /**
+     * Generated names are served as immutable, so a file under such a name is never replaced in place.
+     */
+    static boolean isWriteOnce(String fileName) {
+        return GENERATED_NAME.matcher(fileName).matches();
+    }
+
+    static String storedSha256(Path path) {
+        UserDefinedFileAttributeView view = Files.getFileAttributeView(path, UserDefinedFileAttributeView.class);
+        if (view == null) {
+            return null;
+        }
+        try {
+            ByteBuffer value = ByteBuffer.allocate(view.size(SHA256_ATTRIBUTE));
+            view.read(SHA256_ATTRIBUTE, value);
+            value.flip();
+            return StandardCharsets.US_ASCII.decode(value).toString();
+        } catch (IOException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    static Path resolveInside(Path base, String... segments) {
+        Path resolved = base;
+        for (String segment : segments) {
+            resolved = resolved.resolve(segment);
+        }
+        resolved = resolved.normalize();
+        if (!resolved.startsWith(base.normalize())) {
+            throw new IllegalArgumentException("Invalid storage path");
+        }
+        return resolved;
+    }
+
+    private static void publishOnce(Path temp, Path target) throws IOException {
+        try {
+            // a hard link fails atomically when the target exists, unlike rename
+            Files.createLink(target, temp);
+        } catch (UnsupportedOperationException e) {
+            Files.move(temp, target);
+            return;
+        }
+        Files.deleteIfExists(temp);
+    }
+
+    private static void recordSha256(Path path, String sha256) {
+        UserDefinedFileAttributeView view = Files.getFileAttributeView(path, UserDefinedFileAttributeView.class);
+        if (view == null) {
+            return;
+        }
+        try {
+            view.write(SHA256_ATTRIBUTE, StandardCharsets.US_ASCII.encode(sha256));
+        } catch (IOException | UnsupportedOperationException e) {
+            // the file is served with a size/mtime validator instead
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
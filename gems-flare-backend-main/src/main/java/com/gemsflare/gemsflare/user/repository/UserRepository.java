@@ -2,6 +2,8 @@ package com.gemsflare.gemsflare.user.repository;
 
 import com.gemsflare.gemsflare.user.jpa.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -13,4 +15,7 @@ public interface UserRepository extends JpaRepository<UserEntity, UUID> {
     Optional<UserEntity> findByNameAndLastname(String name, String lastname);
     Optional<UserEntity> findByEmail(String email);
     Optional<UserEntity> findByTelephone(String telephone);
+
+    @Query("select u.role from UserEntity u where u.id = :id")
+    Optional<String> findRoleById(@Param("id") UUID id);
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.gemsflare.gemsflare.user.service;
+
+import com.gemsflare.gemsflare.user.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Component
+public class UserRoleCache {
+    private static final Duration TTL = Duration.ofSeconds(60);
+    private static final int MAX_SIZE = 10_000;
+
+    private final UserRepository userRepository;
+    private final Cache<UUID, String> roles = Caffeine.newBuilder()
+            .expireAfterWrite(TTL)
+            .maximumSize(MAX_SIZE)
+            .recordStats()
+            .build();
+
+    public UserRoleCache(UserRepository userRepository, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        CaffeineCacheMetrics.monitor(meterRegistry, roles, "userRoles");
+    }
+
+    public String getRole(UUID userId) {
+        if (userId == null) {
+            return null;
+        }
+        return roles.get(userId, id -> userRepository.findRoleById(id).orElse(null));
+    }
+
+    public boolean isAdmin(UUID userId) {
+        return "admin".equalsIgnoreCase(getRole(userId));
+    }
+
+    public void evict(UUID userId) {
+        if (userId != null) {
+            roles.invalidate(userId);
+        }
+    }
+}
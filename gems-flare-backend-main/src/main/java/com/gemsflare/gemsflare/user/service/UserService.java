@@ -9,17 +9,16 @@ import com.gemsflare.gemsflare.address.repository.BillAddressRepository;
 import com.gemsflare.gemsflare.address.repository.DeliveryAddressRepository;
 import com.gemsflare.gemsflare.email.EmailService;
 import com.gemsflare.gemsflare.permission.service.PermissionService;
+import com.gemsflare.gemsflare.security.AuthContext;
+import com.gemsflare.gemsflare.security.AuthContextResolver;
 import com.gemsflare.gemsflare.security.JwtUtil;
 import com.gemsflare.gemsflare.user.jpa.UserEntity;
 import com.gemsflare.gemsflare.user.model.LoginResponseDTO;
 import com.gemsflare.gemsflare.user.model.TokenInfoDTO;
 import com.gemsflare.gemsflare.user.model.UserDTO;
 import com.gemsflare.gemsflare.user.repository.UserRepository;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
@@ -47,24 +46,30 @@ public class UserService {
     @Autowired
     private JwtUtil jwtUtil;
     @Autowired
+    private AuthContextResolver authContextResolver;
+    @Autowired
     private EmailService emailService;
+    @Autowired
+    private UserRoleCache userRoleCache;
 
     public ResponseEntity<?> getTokenInfo(HttpServletRequest request) {
-        String token = request.getHeader(HttpHeaders.AUTHORIZATION);
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (token == null || !token.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Missing or invalid token");
         }
 
-        token = token.substring(7);
-
-        String validatedToken = jwtUtil.validateAndRenewToken(token);
-        if (validatedToken == null) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid or expired token");
         }
 
-        Claims claims = Jwts.parser().setSigningKey(jwtUtil.getKey()).build().parseClaimsJws(validatedToken).getBody();
-        Date expirationDate = claims.getExpiration();
+        String validatedToken = authContext.getToken();
+        Date expirationDate = authContext.getExpiration();
+        if (authContext.expiresWithin(JwtUtil.RENEW_THRESHOLD)) {
+            validatedToken = jwtUtil.generateToken(authContext.getUserId());
+            expirationDate = jwtUtil.parseClaims(validatedToken).getExpiration();
+        }
+
         boolean isValid = expirationDate.after(new Date());
 
         SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
@@ -227,18 +232,17 @@ public class UserService {
     }
 
     public ResponseEntity<?> deleteUser(HttpServletRequest request, String password) {
-        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
-        UUID userId = jwtUtil.getUserIdFromToken(token);
+        UUID userId = authContext.getUserId();
         Optional<UserEntity> optionalUser = userRepository.findById(userId);
 
         if (optionalUser.isEmpty()) {
@@ -252,6 +256,7 @@ public class UserService {
         }
 
         userRepository.deleteById(userId);
+        userRoleCache.evict(userId);
         emailService.sendDeletedUserEmail(user.getEmail(), user.getUsername());
         return ResponseEntity.ok("User deleted successfully");
     }
@@ -274,23 +279,23 @@ public class UserService {
         }
 
         userRepository.delete(userToDelete.get());
+        userRoleCache.evict(userToDelete.get().getId());
         emailService.sendDeletedUserEmail(userToDelete.get().getEmail(), userToDelete.get().getUsername());
         return ResponseEntity.ok("User deleted successfully by admin");
     }
 
     public ResponseEntity<?> changeMyPassword(HttpServletRequest request, String oldPassword, String newPassword) {
-        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        AuthContext authContext = authContextResolver.resolve(request);
 
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+        if (authContext == null) {
             return ResponseEntity.status(401).body("Unauthorized: No token provided");
         }
 
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
+        if (!authContext.isValid()) {
             return ResponseEntity.status(401).body("Unauthorized: Invalid token");
         }
 
-        UUID userId = jwtUtil.getUserIdFromToken(token);
+        UUID userId = authContext.getUserId();
         Optional<UserEntity> optionalUser = userRepository.findById(userId);
 
         if (optionalUser.isEmpty()) {
@@ -415,6 +420,7 @@ public class UserService {
         if (telephone != null) user.setTelephone(telephone);
 
         userRepository.save(user);
+        userRoleCache.evict(user.getId());
         emailService.sendEditedProfileEmail(user.getEmail(), user.getUsername());
         return ResponseEntity.ok("User profile updated successfully by admin");
     }
@@ -440,15 +446,7 @@ public class UserService {
     }
 
     public UUID getUserIdFromRequest(HttpServletRequest request) {
-        String authorizationHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
-        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
-            return null;
-        }
-        String token = authorizationHeader.substring(7);
-        if (!jwtUtil.isTokenValid(token)) {
-            return null;
-        }
-        return jwtUtil.getUserIdFromToken(token);
+        return authContextResolver.getUserId(request);
     }
 
     public AddressDTOs getUserAddresses(UUID userId) {
@@ -0,0 +1,23 @@
+package com.gemsflare.gemsflare.utils;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class CursorPage<T> {
+
+    @JsonProperty("content")
+    private List<T> content;
+
+    @JsonProperty("nextCursor")
+    private String nextCursor;
+
+    public CursorPage(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+}
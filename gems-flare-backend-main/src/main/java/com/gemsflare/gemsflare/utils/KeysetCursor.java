@@ -0,0 +1,42 @@
+package com.gemsflare.gemsflare.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+public final class KeysetCursor {
+
+    private final String sortKey;
+    private final UUID id;
+
+    private KeysetCursor(String sortKey, UUID id) {
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    public static String encode(String sortKey, UUID id) {
+        String raw = sortKey + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separator = raw.lastIndexOf('|');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new KeysetCursor(raw.substring(0, separator), UUID.fromString(raw.substring(separator + 1)));
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public long getSortKeyAsLong() {
+        return Long.parseLong(sortKey);
+    }
+
+    public UUID getId() {
+        return id;
+    }
+}
@@ -0,0 +1,97 @@
+package com.gemsflare.gemsflare.email;
+
+import com.gemsflare.gemsflare.configurations.ThymeleafConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Compares the Thymeleaf welcome email against the string concatenation it replaced.
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=EmailRenderBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EmailRenderBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 100_000;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void templateRenderingAgainstConcatenation() {
+        EmailOutboxRepository repository = mock(EmailOutboxRepository.class, withSettings().stubOnly());
+        EmailService emailService = new EmailService();
+        ReflectionTestUtils.setField(emailService, "templateEngine", new ThymeleafConfig().templateEngine());
+        ReflectionTestUtils.setField(emailService, "emailOutboxRepository", repository);
+        emailService.warmUpTemplates();
+
+        Result template = measure(i -> emailService.sendWelcomeEmail("user@example.com", "user" + i));
+        Result concatenation = measure(i -> repository.save(
+                new EmailOutboxEntity("user@example.com", "Welcome to Gemsflare!", concatenatedWelcome("user" + i))));
+
+        System.out.printf("email render  template: %,.0f ns/op %,d B/op  concatenation: %,.0f ns/op %,d B/op%n",
+                template.nanosPerOp(), template.bytesPerOp(), concatenation.nanosPerOp(), concatenation.bytesPerOp());
+        assertTrue(template.bytesPerOp() > 0 && concatenation.bytesPerOp() > 0);
+    }
+
+    private Result measure(IntConsumer operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.accept(i);
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            operation.accept(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        return new Result((double) elapsed / MEASURED_ITERATIONS, allocated / MEASURED_ITERATIONS);
+    }
+
+    private static String concatenatedWelcome(String username) {
+        return "<html>"
+                + "<head>"
+                + "<style>"
+                + "body { font-family: Arial, sans-serif; background-color: #f4f4f9; color: #333; margin: 0; padding: 0; }"
+                + ".container { max-width: 600px; margin: 0 auto; background-color: #ffffff; padding: 20px; border-radius: 8px; box-shadow: 0 4px 10px rgba(0, 0, 0, 0.1); }"
+                + ".header { text-align: center; padding: 20px 0; }"
+                + ".header img { width: 120px; }"
+                + ".content { text-align: center; font-size: 18px; margin-top: 20px; }"
+                + ".button { display: inline-block; background-color: #4CAF50; color: white; padding: 10px 20px; text-decoration: none; border-radius: 4px; margin-top: 20px; }"
+                + ".footer { text-align: center; font-size: 14px; margin-top: 30px; color: #777; }"
+                + "</style>"
+                + "</head>"
+                + "<body>"
+                + "<div class='container'>"
+                + "<div class='header'>"
+                + "<img src='https://cdn1.iconfinder.com/data/icons/medieval-7/128/medieval_gem_emerald_diamond_crystal_stone_treasure-1024.png' alt='Gemsflare Logo' />"
+                + "</div>"
+                + "<div class='content'>"
+                + "<h1>Welcome, " + username + "!</h1>"
+                + "<p>Thank you for signing up for Gemsflare. We're excited to have you with us!</p>"
+                + "<p>If you have any questions, feel free to reach out to us at any time.</p>"
+                + "<a href='https://gemsflare.com' class='button'>Get Started</a>"
+                + "</div>"
+                + "<div class='footer'>"
+                + "<p>Best regards,</p>"
+                + "<p><strong>Gemsflare Team</strong></p>"
+                + "</div>"
+                + "</div>"
+                + "</body>"
+                + "</html>";
+    }
+
+    private record Result(double nanosPerOp, long bytesPerOp) {
+    }
+}
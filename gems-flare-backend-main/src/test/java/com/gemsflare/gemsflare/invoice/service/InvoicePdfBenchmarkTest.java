@@ -0,0 +1,161 @@
+package com.gemsflare.gemsflare.invoice.service;
+
+import com.gemsflare.gemsflare.address.model.BillAddressDTO;
+import com.gemsflare.gemsflare.address.model.DeliveryAddressDTO;
+import com.gemsflare.gemsflare.configurations.ThymeleafConfig;
+import com.gemsflare.gemsflare.invoice.model.InvoiceDTO;
+import com.gemsflare.gemsflare.item.model.ItemDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Submits concurrent renders to the invoice PDF pool and reports throughput, latency percentiles and the share of
+ * requests that the endpoints would answer with 503. Run with
+ * {@code mvn test -Dbenchmark=true -Dtest=InvoicePdfBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class InvoicePdfBenchmarkTest {
+
+    private static final int REQUESTS = 400;
+    private static final int SATURATING_CLIENTS = 128;
+
+    private InvoicePdfService invoicePdfService;
+    private int workers;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        invoicePdfService = new InvoicePdfService(new ThymeleafConfig().templateEngine(), new SimpleMeterRegistry(), List.of());
+        workers = Math.max(2, Runtime.getRuntime().availableProcessors());
+        for (int i = 0; i < workers * 4; i++) {
+            invoicePdfService.generatePdf(invoice(i));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        invoicePdfService.shutdown();
+    }
+
+    @Test
+    void throughputWithinPoolCapacity() throws Exception {
+        Result result = run(workers);
+
+        result.print("within capacity (" + workers + " clients)");
+        assertEquals(0, result.busy());
+    }
+
+    @Test
+    void busyRateWhenQueueIsSaturated() throws Exception {
+        Result result = run(SATURATING_CLIENTS);
+
+        result.print("saturated (" + SATURATING_CLIENTS + " clients)");
+        assertTrue(result.rendered() > 0);
+    }
+
+    private Result run(int clients) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        AtomicLongArray latencies = new AtomicLongArray(REQUESTS);
+        AtomicInteger busy = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(REQUESTS);
+
+        for (int i = 0; i < REQUESTS; i++) {
+            int request = i;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    long begin = System.nanoTime();
+                    invoicePdfService.generatePdf(invoice(request));
+                    latencies.set(request, System.nanoTime() - begin);
+                } catch (RejectedExecutionException | TimeoutException e) {
+                    busy.incrementAndGet();
+                    latencies.set(request, -1);
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    latencies.set(request, -1);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        List<Long> rendered = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            if (latencies.get(i) >= 0) {
+                rendered.add(latencies.get(i));
+            }
+        }
+        long[] sorted = rendered.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        assertEquals(0, failed.get());
+        return new Result(sorted, busy.get(), elapsed);
+    }
+
+    private static InvoiceDTO invoice(int request) {
+        List<ItemDTO> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ItemDTO item = new ItemDTO();
+            item.setName("Item " + i);
+            item.setNumber("ITEM-" + i);
+            item.setAmount(i + 1);
+            item.setPrice(new BigDecimal("19.99"));
+            items.add(item);
+        }
+        BillAddressDTO billAddress = new BillAddressDTO("Jane", "Doe", "Main Street", "1", "1010", "Vienna", "Austria");
+        DeliveryAddressDTO shippingAddress = new DeliveryAddressDTO("Jane", "Doe", "Main Street", "1", "1010", "Vienna", "Austria");
+        return new InvoiceDTO(UUID.randomUUID(), String.format("GEMSFLARE-BENCH-%06d", request), LocalDate.now(), LocalDate.now(),
+                "ORDER-" + request, billAddress, shippingAddress, items, new BigDecimal("1099.45"),
+                new BigDecimal("916.21"), "20%", "PayPall");
+    }
+
+    private record Result(long[] latencies, int busy, long elapsedNanos) {
+
+        int rendered() {
+            return latencies.length;
+        }
+
+        long percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * latencies.length) - 1;
+            return TimeUnit.NANOSECONDS.toMillis(latencies[Math.max(index, 0)]);
+        }
+
+        void print(String label) {
+            double seconds = elapsedNanos / 1e9;
+            System.out.printf("invoice pdf %s: %d requests in %.2f s, %.1f renders/s, p50 %d ms, p99 %d ms, 503 rate %.1f%%%n",
+                    label, REQUESTS, seconds, rendered() / seconds, percentileMillis(0.50), percentileMillis(0.99),
+                    100.0 * busy / REQUESTS);
+        }
+    }
+}
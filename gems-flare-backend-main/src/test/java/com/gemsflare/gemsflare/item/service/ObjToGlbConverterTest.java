@@ -0,0 +1,153 @@
+package com.gemsflare.gemsflare.item.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ObjToGlbConverterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void convertsTriangle() throws IOException {
+        Glb glb = convert("""
+                v 0 0 0
+                v 1 0 0
+                v 0 1 0
+                f 1 2 3
+                """);
+
+        JsonNode position = glb.attribute("POSITION");
+        assertEquals(3, position.get("count").asInt());
+        assertEquals(3, glb.indices().get("count").asInt());
+        assertVector(position.get("min"), 0, 0, 0);
+        assertVector(position.get("max"), 65535, 65535, 0);
+        assertVector(glb.json().at("/nodes/0/translation"), 0, 0, 0);
+    }
+
+    @Test
+    void triangulatesQuad() throws IOException {
+        Glb glb = convert("""
+                v 0 0 1
+                v 2 0 1
+                v 2 2 1
+                v 0 2 1
+                f 1 2 3 4
+                """);
+
+        JsonNode position = glb.attribute("POSITION");
+        assertEquals(4, position.get("count").asInt());
+        assertEquals(6, glb.indices().get("count").asInt());
+        assertVector(position.get("min"), 0, 0, 0);
+        assertVector(position.get("max"), 65535, 65535, 0);
+        assertVector(glb.json().at("/nodes/0/translation"), 0, 0, 1);
+    }
+
+    @Test
+    void resolvesNegativeIndices() throws IOException {
+        Glb glb = convert("""
+                v 0 0 0
+                v 1 0 0
+                v 0 1 0
+                f -3 -2 -1
+                v 0 0 1
+                v 1 0 1
+                v 0 1 1
+                f -3 -2 -1
+                """);
+
+        assertEquals(6, glb.attribute("POSITION").get("count").asInt());
+        JsonNode indices = glb.indices();
+        assertEquals(6, indices.get("count").asInt());
+        int offset = glb.bufferView(indices).get("byteOffset").asInt();
+        for (int i = 0; i < 6; i++) {
+            assertEquals(i, glb.bin().getShort(offset + i * 2));
+        }
+    }
+
+    @Test
+    void computesOnlyMissingNormals() throws IOException {
+        Glb glb = convert("""
+                v 0 0 0
+                v 1 0 0
+                v 0 1 0
+                v 1 1 0
+                vn 1 0 0
+                f 1//1 2//1 3//1
+                f 2 4 3
+                """);
+
+        JsonNode normal = glb.attribute("NORMAL");
+        assertEquals(6, normal.get("count").asInt());
+        int offset = glb.bufferView(normal).get("byteOffset").asInt();
+        for (int v = 0; v < 6; v++) {
+            int at = offset + v * 4;
+            int[] expected = v < 3 ? new int[]{127, 0, 0} : new int[]{0, 0, 127};
+            assertEquals(expected[0], glb.bin().get(at));
+            assertEquals(expected[1], glb.bin().get(at + 1));
+            assertEquals(expected[2], glb.bin().get(at + 2));
+        }
+    }
+
+    private Glb convert(String obj) throws IOException {
+        Path source = tempDir.resolve("model.obj");
+        Path target = tempDir.resolve("model.glb");
+        Files.writeString(source, obj, StandardCharsets.ISO_8859_1);
+
+        ObjToGlbConverter.convert(source, target);
+
+        ByteBuffer glb = ByteBuffer.wrap(Files.readAllBytes(target)).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(0x46546C67, glb.getInt(0));
+        assertEquals(2, glb.getInt(4));
+        assertEquals(glb.capacity(), glb.getInt(8));
+
+        int jsonLength = glb.getInt(12);
+        assertEquals(0x4E4F534A, glb.getInt(16));
+        JsonNode json = new ObjectMapper().readTree(glb.array(), 20, jsonLength);
+
+        int binStart = 20 + jsonLength;
+        int binLength = glb.getInt(binStart);
+        assertEquals(0x004E4942, glb.getInt(binStart + 4));
+        assertEquals(json.at("/buffers/0/byteLength").asInt(), binLength);
+        ByteBuffer bin = glb.slice(binStart + 8, binLength).order(ByteOrder.LITTLE_ENDIAN);
+
+        return new Glb(json, bin);
+    }
+
+    private static void assertVector(JsonNode node, double x, double y, double z) {
+        assertEquals(3, node.size());
+        assertEquals(x, node.get(0).asDouble(), 1e-6);
+        assertEquals(y, node.get(1).asDouble(), 1e-6);
+        assertEquals(z, node.get(2).asDouble(), 1e-6);
+    }
+
+    private record Glb(JsonNode json, ByteBuffer bin) {
+
+        JsonNode attribute(String name) {
+            return accessor(json.at("/meshes/0/primitives/0/attributes/" + name).asInt());
+        }
+
+        JsonNode indices() {
+            return accessor(json.at("/meshes/0/primitives/0/indices").asInt());
+        }
+
+        JsonNode accessor(int index) {
+            return json.get("accessors").get(index);
+        }
+
+        JsonNode bufferView(JsonNode accessor) {
+            return json.get("bufferViews").get(accessor.get("bufferView").asInt());
+        }
+    }
+}
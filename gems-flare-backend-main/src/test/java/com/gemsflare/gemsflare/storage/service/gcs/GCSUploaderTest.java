@@ -0,0 +1,171 @@
+package com.gemsflare.gemsflare.storage.service.gcs;
+
+import com.google.cloud.RestorableState;
+import com.google.cloud.WriteChannel;
+import com.google.cloud.storage.BlobId;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.StorageException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GCSUploaderTest {
+
+    private static final int CHUNK = 512 * 1024;
+    private static final BlobInfo BLOB = BlobInfo.newBuilder(BlobId.of("bucket", "items/1/model.obj")).build();
+
+    @Test
+    void uploadsInChunks() throws Exception {
+        byte[] content = randomBytes(CHUNK * 3 + 1234);
+        Upload upload = new Upload(0);
+
+        String sha256 = uploader(3).upload(storage(upload), BLOB, new ByteArrayInputStream(content));
+
+        assertArrayEquals(content, upload.committed.toByteArray());
+        assertEquals(sha256Hex(content), sha256);
+        assertEquals(4, upload.requests);
+        assertEquals(0, upload.restores);
+    }
+
+    @Test
+    void retriesFailedChunkFromCapturedState() throws Exception {
+        byte[] content = randomBytes(CHUNK * 2 + 10);
+        Upload upload = new Upload(1);
+
+        uploader(3).upload(storage(upload), BLOB, new ByteArrayInputStream(content));
+
+        assertArrayEquals(content, upload.committed.toByteArray());
+        assertEquals(1, upload.restores);
+    }
+
+    @Test
+    void givesUpAfterConfiguredRetries() {
+        Upload upload = new Upload(Integer.MAX_VALUE);
+
+        assertThrows(StorageException.class, () ->
+                uploader(0).upload(storage(upload), BLOB, new ByteArrayInputStream(randomBytes(CHUNK))));
+        assertEquals(0, upload.committed.size());
+    }
+
+    private GCSUploader uploader(int retries) {
+        GCSUploader uploader = new GCSUploader();
+        ReflectionTestUtils.setField(uploader, "chunkSize", DataSize.ofBytes(CHUNK));
+        ReflectionTestUtils.setField(uploader, "chunkRetries", retries);
+        return uploader;
+    }
+
+    private Storage storage(Upload upload) {
+        Storage storage = mock(Storage.class);
+        when(storage.writer(BLOB)).thenReturn(new FakeWriteChannel(upload, CHUNK, new byte[0]));
+        return storage;
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(42).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String sha256Hex(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+
+    private static final class Upload {
+        private final ByteArrayOutputStream committed = new ByteArrayOutputStream();
+        private int failures;
+        private int requests;
+        private int restores;
+
+        Upload(int failures) {
+            this.failures = failures;
+        }
+
+        void send(byte[] chunk, int length) {
+            requests++;
+            if (failures > 0) {
+                failures--;
+                throw new StorageException(503, "Service Unavailable");
+            }
+            committed.write(chunk, 0, length);
+        }
+    }
+
+    private static final class FakeWriteChannel implements WriteChannel {
+        private final Upload upload;
+        private byte[] buffer;
+        private int limit;
+        private int chunkSize;
+        private boolean open = true;
+
+        FakeWriteChannel(Upload upload, int chunkSize, byte[] buffered) {
+            this.upload = upload;
+            this.chunkSize = chunkSize;
+            this.buffer = Arrays.copyOf(buffered, Math.max(buffered.length, CHUNK));
+            this.limit = buffered.length;
+        }
+
+        @Override
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (!open) {
+                throw new IOException("closed");
+            }
+            int length = src.remaining();
+            if (limit + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, limit + length);
+            }
+            src.get(buffer, limit, length);
+            limit += length;
+            if (limit >= chunkSize) {
+                upload.send(buffer, chunkSize);
+                limit -= chunkSize;
+                System.arraycopy(buffer, chunkSize, buffer, 0, limit);
+            }
+            return length;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void close() {
+            if (open && limit > 0) {
+                upload.send(buffer, limit);
+                limit = 0;
+            }
+            open = false;
+        }
+
+        @Override
+        public RestorableState<WriteChannel> capture() {
+            byte[] snapshot = Arrays.copyOf(buffer, limit);
+            int capturedChunkSize = chunkSize;
+            return () -> {
+                upload.restores++;
+                return new FakeWriteChannel(upload, capturedChunkSize, snapshot);
+            };
+        }
+    }
+}